@@ -0,0 +1,49 @@
+package me.swissh.warped_dimension;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Biome lookups, walking along x one quart (4 blocks) or one chunk per call. getBiome itself
+ * returns registry Biome constants that need a running server, so its noise is measured
+ * through getBiomeNoise instead.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WarpedBiomeBenchmark {
+
+    private final WarpedBiomeProvider biomeProvider = new WarpedBiomeProvider();
+    private final WarpedBiomeCache biomeCache = WarpedBiomeCache.forSeed(WarpedGeneratorBenchmark.SEED);
+    private int x;
+
+    @Benchmark
+    public double getBiomeNoise() {
+        x += 4;
+        return biomeProvider.getBiomeNoise(x, 100, WarpedGeneratorBenchmark.SEED);
+    }
+
+    @Benchmark
+    public WarpedBiomes getWarpedBiomeType() {
+        x += 16;
+        return biomeProvider.getWarpedBiomeType(x, 100, WarpedGeneratorBenchmark.SEED);
+    }
+
+    @Benchmark
+    public WarpedBiomes getChunkBiome() {
+        x++;
+        return biomeCache.getChunkBiome(x & 4095, 6);
+    }
+}
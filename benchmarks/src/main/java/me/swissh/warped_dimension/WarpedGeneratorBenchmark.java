@@ -0,0 +1,96 @@
+package me.swissh.warped_dimension;
+
+import org.bukkit.generator.WorldInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Surface and bedrock passes over one chunk of synthetic terrain in each biome. Every
+ * invocation starts from a fresh copy of the terrain, so the surface pass always has
+ * blocks to replace.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WarpedGeneratorBenchmark {
+
+    static final long SEED = 42L;
+
+    @Param({ "WARPED_FOREST", "SCULK_FOREST", "AMETHYST_FOREST" })
+    public WarpedBiomes biome;
+
+    @Param({ "false", "true" })
+    public boolean sectionScan;
+
+    private WorldInfo worldInfo;
+    private WarpedWorldGenerator generator;
+    private int chunkX;
+    private int chunkZ;
+    private TestChunkData terrain;
+    private TestChunkData chunk;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        worldInfo = TestWorldInfo.create(SEED);
+        generator = new WarpedWorldGenerator(Logger.getLogger("WarpedGeneratorBenchmark"), sectionScan, true);
+
+        int[] found = findChunk(biome);
+        chunkX = found[0];
+        chunkZ = found[1];
+        terrain = new TestChunkData(TestWorldInfo.MIN_HEIGHT, TestWorldInfo.MAX_HEIGHT);
+        TestWorld.fillTerrain(terrain, chunkX, chunkZ, new Random(SEED));
+    }
+
+    @Setup(Level.Invocation)
+    public void resetChunk() {
+        chunk = terrain.copy();
+        random = new Random(SEED);
+    }
+
+    @Benchmark
+    public TestChunkData generateSurface() {
+        generator.generateSurface(worldInfo, random, chunkX, chunkZ, chunk.asChunkData());
+        return chunk;
+    }
+
+    @Benchmark
+    public TestChunkData generateBedrock() {
+        generator.generateBedrock(worldInfo, random, chunkX, chunkZ, chunk.asChunkData());
+        return chunk;
+    }
+
+    /**
+     * The chunk closest to the origin, on a coarse grid, whose biome is the given one
+     */
+    static int[] findChunk(WarpedBiomes biomeType) {
+        WarpedBiomeCache cache = WarpedBiomeCache.forSeed(SEED);
+        for (int radius = 0; radius < 1024; radius += 8) {
+            for (int x = -radius; x <= radius; x += 8) {
+                for (int z = -radius; z <= radius; z += 8) {
+                    if (cache.getChunkBiome(x, z) == biomeType) {
+                        return new int[] { x, z };
+                    }
+                }
+            }
+        }
+        throw new IllegalStateException("No " + biomeType + " chunk found for seed " + SEED);
+    }
+}
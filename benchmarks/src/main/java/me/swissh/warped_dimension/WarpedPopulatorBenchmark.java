@@ -0,0 +1,99 @@
+package me.swissh.warped_dimension;
+
+import org.bukkit.generator.BlockPopulator;
+import org.bukkit.generator.WorldInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Each feature populating a chunk of a biome it generates in, and the composite pipeline
+ * populating a warped forest chunk. Every invocation gets a fresh copy of the generated
+ * region, so features never find their own blocks from an earlier call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WarpedPopulatorBenchmark {
+
+    private static final String PIPELINE = "pipeline";
+
+    @Param({ "warped_trees", "sculk_trees", "amethyst_trees", "amethyst_rocks", "chorus_flowers", "ruins", PIPELINE })
+    public String populatorName;
+
+    private TestWorld world;
+    private WorldInfo worldInfo;
+    private BlockPopulator populator;
+    private int chunkX;
+    private int chunkZ;
+    private TestLimitedRegion region;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        world = new TestWorld(WarpedGeneratorBenchmark.SEED);
+        worldInfo = world.getWorldInfo();
+
+        int[] chunk;
+        if (populatorName.equals(PIPELINE)) {
+            populator = world.createPipeline();
+            chunk = WarpedGeneratorBenchmark.findChunk(WarpedBiomes.WARPED_FOREST);
+        } else {
+            WarpedFeaturePopulator feature = WarpedWorldGenerator.createFeatures().stream()
+                .filter(candidate -> candidate.getName().equals(populatorName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown populator " + populatorName));
+            populator = feature;
+            chunk = feature instanceof WarpedRuinsPopulator ? findRuinsChunk() : findChunk(feature);
+        }
+        chunkX = chunk[0];
+        chunkZ = chunk[1];
+
+        // Generate the terrain once, outside the measurement
+        world.createRegion(chunkX, chunkZ);
+    }
+
+    @Setup(Level.Invocation)
+    public void resetRegion() {
+        region = world.createRegion(chunkX, chunkZ);
+        random = world.newPopulatorRandom(chunkX, chunkZ);
+    }
+
+    @Benchmark
+    public TestLimitedRegion populate() {
+        populator.populate(worldInfo, random, chunkX, chunkZ, region.asLimitedRegion());
+        return region;
+    }
+
+    private static int[] findChunk(WarpedFeaturePopulator feature) {
+        for (WarpedBiomes biomeType : WarpedBiomes.values()) {
+            if (feature.appliesTo(biomeType)) {
+                return WarpedGeneratorBenchmark.findChunk(biomeType);
+            }
+        }
+        throw new IllegalStateException(feature.getName() + " generates in no biome");
+    }
+
+    private static int[] findRuinsChunk() {
+        int[] ruins = WarpedRuinsPlacement.locateNearest(WarpedGeneratorBenchmark.SEED, 0, 0, 8);
+        if (ruins == null) {
+            throw new IllegalStateException("No ruins near the origin for seed " + WarpedGeneratorBenchmark.SEED);
+        }
+        return new int[] { ruins[0] >> 4, ruins[1] >> 4 };
+    }
+}
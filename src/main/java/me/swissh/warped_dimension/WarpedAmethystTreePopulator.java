@@ -2,33 +2,27 @@ package me.swissh.warped_dimension;
 
 import org.bukkit.Material;
 import org.bukkit.block.Biome;
-import org.bukkit.generator.BlockPopulator;
-import org.bukkit.generator.LimitedRegion;
-import org.bukkit.generator.WorldInfo;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Random;
 
-public class WarpedAmethystTreePopulator extends BlockPopulator {
+public class WarpedAmethystTreePopulator extends WarpedFeaturePopulator {
 
     @Override
-    public void populate(@NotNull WorldInfo worldInfo, @NotNull Random random, int chunkX, int chunkZ, @NotNull LimitedRegion limitedRegion) {
-        // Only populate in the warped dimension
-        if (!worldInfo.getName().equals("warped_dimension")) {
-            return;
-        }
+    public String getName() {
+        return "amethyst_trees";
+    }
 
-        // Check if this chunk should have amethyst forest trees
-        int centerX = chunkX * 16 + 8;
-        int centerZ = chunkZ * 16 + 8;
-        
-        // Use the biome provider to determine biome type
-        WarpedBiomeProvider biomeProvider = new WarpedBiomeProvider();
-        WarpedBiomes biomeType = biomeProvider.getWarpedBiomeType(centerX, centerZ, worldInfo.getSeed());
+    @Override
+    public boolean appliesTo(WarpedBiomes biomeType) {
+        // Amethyst trees only grow in the amethyst forest
+        return biomeType == WarpedBiomes.AMETHYST_FOREST;
+    }
 
-        if (biomeType != WarpedBiomes.AMETHYST_FOREST) {
-            return;
-        }
+    @Override
+    public void generate(@NotNull WarpedChunkContext context, @NotNull Random random) {
+        int chunkX = context.getChunkX();
+        int chunkZ = context.getChunkZ();
 
         // Generate 2-4 amethyst trees per chunk (more trees since they're shorter)
         int treeCount = 2 + random.nextInt(3);
@@ -36,36 +30,24 @@ public class WarpedAmethystTreePopulator extends BlockPopulator {
         for (int i = 0; i < treeCount; i++) {
             int x = chunkX * 16 + random.nextInt(16);
             int z = chunkZ * 16 + random.nextInt(16);
-            int y = findHighestBlock(limitedRegion, x, z, worldInfo);
-
-            if (canGenerateTree(limitedRegion, x, y, z)) {
-                generateAmethystTree(limitedRegion, x, y, z, random);
-            }
-        }
-    }
+            int y = context.getSurfaceY(x, z);
 
-    private int findHighestBlock(LimitedRegion region, int x, int z, WorldInfo worldInfo) {
-        for (int y = worldInfo.getMaxHeight() - 1; y > worldInfo.getMinHeight(); y--) {
-            if (region.isInRegion(x, y, z)) {
-                Material blockType = region.getType(x, y, z);
-                if (blockType != Material.AIR) {
-                    return y + 1;
-                }
+            if (canGenerateTree(context, x, y, z)) {
+                generateAmethystTree(context, x, y, z, random);
             }
         }
-        return worldInfo.getMinHeight();
     }
 
-    private boolean canGenerateTree(LimitedRegion region, int x, int y, int z) {
-        if (!region.isInRegion(x, y - 1, z) || !region.isInRegion(x, y, z) || 
-            !region.isInRegion(x, y + 1, z) || !region.isInRegion(x, y + 2, z)) {
+    private boolean canGenerateTree(WarpedChunkContext context, int x, int y, int z) {
+        if (!context.isInRegion(x, y - 1, z) || !context.isInRegion(x, y, z) || 
+            !context.isInRegion(x, y + 1, z) || !context.isInRegion(x, y + 2, z)) {
             return false;
         }
 
-        Material ground = region.getType(x, y - 1, z);
-        Material air1 = region.getType(x, y, z);
-        Material air2 = region.getType(x, y + 1, z);
-        Material air3 = region.getType(x, y + 2, z);
+        Material ground = context.getType(x, y - 1, z);
+        Material air1 = context.getType(x, y, z);
+        Material air2 = context.getType(x, y + 1, z);
+        Material air3 = context.getType(x, y + 2, z);
 
         // Must be on sculk
         if (ground != Material.SCULK) {
@@ -76,25 +58,25 @@ public class WarpedAmethystTreePopulator extends BlockPopulator {
         return air1 == Material.AIR && air2 == Material.AIR && air3 == Material.AIR;
     }
 
-    private void generateAmethystTree(LimitedRegion region, int x, int y, int z, Random random) {
+    private void generateAmethystTree(WarpedChunkContext context, int x, int y, int z, Random random) {
         // Tree height: 4-7 blocks (shorter, more shrub-like)
         int height = 4 + random.nextInt(4);
         
         // Generate trunk (dark oak wood)
         for (int i = 0; i < height; i++) {
-            if (region.isInRegion(x, y + i, z)) {
-                region.setType(x, y + i, z, Material.DARK_OAK_LOG);
+            if (context.isInRegion(x, y + i, z)) {
+                context.setType(x, y + i, z, Material.DARK_OAK_LOG);
             }
         }
 
         // Generate amethyst canopy
-        generateAmethystCanopy(region, x, y + height, z, random);
+        generateAmethystCanopy(context, x, y + height, z, random);
         
         // Add amethyst clusters on canopy
-        addAmethystClusters(region, x, y + height, z, random);
+        addAmethystClusters(context, x, y + height, z, random);
     }
 
-    private void generateAmethystCanopy(LimitedRegion region, int x, int y, int z, Random random) {
+    private void generateAmethystCanopy(WarpedChunkContext context, int x, int y, int z, Random random) {
         // Canopy radius: 2-4 blocks (smaller for shorter trees)
         int radius = 2 + random.nextInt(3);
         
@@ -109,15 +91,15 @@ public class WarpedAmethystTreePopulator extends BlockPopulator {
                         int blockY = y + dy;
                         int blockZ = z + dz;
                         
-                        if (region.isInRegion(blockX, blockY, blockZ)) {
-                            Material currentType = region.getType(blockX, blockY, blockZ);
+                        if (context.isInRegion(blockX, blockY, blockZ)) {
+                            Material currentType = context.getType(blockX, blockY, blockZ);
                             
                             if (currentType == Material.AIR) {
-                                region.setType(blockX, blockY, blockZ, Material.AMETHYST_BLOCK);
+                                context.setType(blockX, blockY, blockZ, Material.AMETHYST_BLOCK);
                                 
                                 // Add white froglights within the canopy for internal glow
                                 if (random.nextDouble() < 0.15) { // 15% chance for froglights
-                                    region.setType(blockX, blockY, blockZ, Material.OCHRE_FROGLIGHT);
+                                    context.setType(blockX, blockY, blockZ, Material.OCHRE_FROGLIGHT);
                                 }
                             }
                         }
@@ -127,20 +109,20 @@ public class WarpedAmethystTreePopulator extends BlockPopulator {
         }
     }
 
-    private void addAmethystClusters(LimitedRegion region, int x, int y, int z, Random random) {
+    private void addAmethystClusters(WarpedChunkContext context, int x, int y, int z, Random random) {
         // Add small amethyst clusters on the sides and tops of canopies
         for (int i = 0; i < 3; i++) {
             int clusterX = x + random.nextInt(7) - 3;
             int clusterY = y + random.nextInt(3);
             int clusterZ = z + random.nextInt(7) - 3;
             
-            if (region.isInRegion(clusterX, clusterY, clusterZ)) {
-                Material currentType = region.getType(clusterX, clusterY, clusterZ);
+            if (context.isInRegion(clusterX, clusterY, clusterZ)) {
+                Material currentType = context.getType(clusterX, clusterY, clusterZ);
                 
                 // Place clusters on amethyst blocks
                 if (currentType == Material.AMETHYST_BLOCK) {
                     // Add small amethyst clusters
-                    region.setType(clusterX, clusterY, clusterZ, Material.AMETHYST_CLUSTER);
+                    context.setType(clusterX, clusterY, clusterZ, Material.AMETHYST_CLUSTER);
                 }
             }
         }
@@ -0,0 +1,92 @@
+package me.swissh.warped_dimension;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-seed cache of the chunk-center biome type used by the generator and all populators.
+ * Chunks are grouped into 32x32 tiles holding one packed byte per chunk, and the least
+ * recently used tiles are dropped once the cache is full. Safe to use from worldgen threads.
+ */
+public class WarpedBiomeCache {
+
+    private static final int TILE_SHIFT = 5; // 32x32 chunks per tile
+    private static final int TILE_MASK = (1 << TILE_SHIFT) - 1;
+    private static final int MAX_TILES = 256; // 1 KiB per tile, 256 KiB per seed
+
+    private static final Map<Long, WarpedBiomeCache> CACHES = new ConcurrentHashMap<>();
+    private static final WarpedBiomes[] BIOMES = WarpedBiomes.values();
+
+    private final long seed;
+    private final WarpedBiomeProvider biomeProvider = new WarpedBiomeProvider();
+    private final Map<Long, Tile> tiles = new ConcurrentHashMap<>();
+    private final AtomicLong clock = new AtomicLong();
+
+    private WarpedBiomeCache(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Get the shared cache for a world seed
+     */
+    public static WarpedBiomeCache forSeed(long seed) {
+        return CACHES.computeIfAbsent(seed, WarpedBiomeCache::new);
+    }
+
+    /**
+     * Get the biome type at the center of a chunk, same as
+     * WarpedBiomeProvider.getWarpedBiomeType(chunkX * 16 + 8, chunkZ * 16 + 8, seed)
+     */
+    public WarpedBiomes getChunkBiome(int chunkX, int chunkZ) {
+        Tile tile = getTile(chunkX >> TILE_SHIFT, chunkZ >> TILE_SHIFT);
+        int index = ((chunkZ & TILE_MASK) << TILE_SHIFT) | (chunkX & TILE_MASK);
+
+        // 0 means not computed yet. Racing threads compute and store the same value,
+        // so the unsynchronized byte array is safe.
+        byte packed = tile.biomeIds[index];
+        if (packed != 0) {
+            return BIOMES[packed - 1];
+        }
+
+        WarpedBiomes biomeType = biomeProvider.getWarpedBiomeType(chunkX * 16 + 8, chunkZ * 16 + 8, seed);
+        tile.biomeIds[index] = (byte) (biomeType.ordinal() + 1);
+        return biomeType;
+    }
+
+    private Tile getTile(int tileX, int tileZ) {
+        long key = ((long) tileX << 32) | (tileZ & 0xFFFFFFFFL);
+        Tile tile = tiles.get(key);
+        if (tile != null) {
+            // The clock only advances when tiles are added, so a plain read is enough to order them
+            tile.lastUsed = clock.get();
+            return tile;
+        }
+
+        tile = tiles.computeIfAbsent(key, k -> new Tile());
+        tile.lastUsed = clock.incrementAndGet();
+        if (tiles.size() > MAX_TILES) {
+            evictLeastRecentlyUsed();
+        }
+        return tile;
+    }
+
+    private void evictLeastRecentlyUsed() {
+        Long oldestKey = null;
+        long oldestUse = Long.MAX_VALUE;
+        for (Map.Entry<Long, Tile> entry : tiles.entrySet()) {
+            if (entry.getValue().lastUsed < oldestUse) {
+                oldestUse = entry.getValue().lastUsed;
+                oldestKey = entry.getKey();
+            }
+        }
+        if (oldestKey != null) {
+            tiles.remove(oldestKey);
+        }
+    }
+
+    private static class Tile {
+        private final byte[] biomeIds = new byte[1 << (TILE_SHIFT * 2)];
+        private volatile long lastUsed;
+    }
+}
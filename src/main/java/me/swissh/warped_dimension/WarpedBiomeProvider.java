@@ -5,23 +5,37 @@ import org.bukkit.generator.BiomeProvider;
 import org.bukkit.generator.WorldInfo;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Arrays;
 import java.util.List;
-import java.util.Random;
 
+/**
+ * Stateless biome provider. Paper calls it from several worldgen threads at once,
+ * so every value is derived from the seed and coordinates alone.
+ */
 public class WarpedBiomeProvider extends BiomeProvider {
 
-    private final Random random = new Random();
+    // java.util.Random LCG constants, used for the coordinate jitter
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    // Sampled: only calls for the chunk's corner column every 64 blocks up are timed, about 6 per chunk
+    private static final WarpedProfiler.Stage BIOME_TIMING = WarpedProfiler.stage("biome.provider");
 
     @Override
     public @NotNull Biome getBiome(@NotNull WorldInfo worldInfo, int x, int y, int z) {
         // Create biome distribution based on coordinates for consistent generation
         long seed = worldInfo.getSeed();
-        random.setSeed(seed + x * 12345L + z * 67890L);
-        
+
         // Use noise-based distribution for natural-looking biome boundaries
-        double noise = getBiomeNoise(x, z, seed);
-        
+        double noise;
+        if (((x | z) & 15) == 0 && (y & 63) == 0) {
+            long start = System.nanoTime();
+            noise = getBiomeNoise(x, z, seed);
+            BIOME_TIMING.record(System.nanoTime() - start);
+        } else {
+            noise = getBiomeNoise(x, z, seed);
+        }
+
         // Biome distribution: 33% each biome for more balanced areas
         if (noise > 0.67) {
             return Biome.END_HIGHLANDS; // Amethyst Forest (33%)
@@ -34,7 +48,7 @@ public class WarpedBiomeProvider extends BiomeProvider {
 
     @Override
     public @NotNull List<Biome> getBiomes(@NotNull WorldInfo worldInfo) {
-        return Arrays.asList(Biome.WARPED_FOREST, Biome.DEEP_DARK, Biome.END_HIGHLANDS);
+        return List.of(Biome.WARPED_FOREST, Biome.DEEP_DARK, Biome.END_HIGHLANDS);
     }
 
     /**
@@ -68,7 +82,7 @@ public class WarpedBiomeProvider extends BiomeProvider {
     /**
      * Improved noise function for biome distribution - creates larger, more coherent areas
      */
-    private double getBiomeNoise(int x, int z, long seed) {
+    double getBiomeNoise(int x, int z, long seed) {
         // Use much lower frequency noise for larger biome areas
         // Scale down coordinates to create larger regions (divide by larger numbers)
         double scale1 = 0.001; // Very large areas
@@ -76,8 +90,7 @@ public class WarpedBiomeProvider extends BiomeProvider {
         double scale3 = 0.003; // Medium areas
         
         // Add some randomness based on seed for variation
-        Random random = new Random(seed + x * 12345L + z * 67890L);
-        double randomOffset = (random.nextDouble() - 0.5) * 0.1;
+        double randomOffset = (coordinateJitter(seed + x * 12345L + z * 67890L) - 0.5) * 0.1;
         
         // Create layered noise for more natural boundaries
         double noise1 = Math.sin(x * scale1) * Math.cos(z * scale1);
@@ -88,4 +101,17 @@ public class WarpedBiomeProvider extends BiomeProvider {
         double combined = (noise1 + noise2 + noise3 + randomOffset + 2.0) / 4.0;
         return Math.max(0.0, Math.min(1.0, combined)); // Clamp to 0-1
     }
+
+    /**
+     * Pure coordinate hash in [0, 1). Produces exactly what new Random(key).nextDouble()
+     * returns, without allocating or sharing any state between threads.
+     */
+    static double coordinateJitter(long key) {
+        long state = (key ^ MULTIPLIER) & MASK;
+        state = (state * MULTIPLIER + ADDEND) & MASK;
+        long high = state >>> (48 - 26);
+        state = (state * MULTIPLIER + ADDEND) & MASK;
+        long low = state >>> (48 - 27);
+        return ((high << 27) + low) * 0x1.0p-53;
+    }
 }
@@ -6,20 +6,26 @@ import org.bukkit.block.Biome;
  * Custom biome definitions for the Warped Dimension
  */
 public enum WarpedBiomes {
-    WARPED_FOREST(Biome.WARPED_FOREST, "Warped Forest"),
-    SCULK_FOREST(Biome.DEEP_DARK, "Sculk Forest"),
-    AMETHYST_FOREST(Biome.END_HIGHLANDS, "Amethyst Forest");
+    WARPED_FOREST("Warped Forest"),
+    SCULK_FOREST("Sculk Forest"),
+    AMETHYST_FOREST("Amethyst Forest");
 
-    private final Biome baseBiome;
     private final String displayName;
 
-    WarpedBiomes(Biome baseBiome, String displayName) {
-        this.baseBiome = baseBiome;
+    WarpedBiomes(String displayName) {
         this.displayName = displayName;
     }
 
     public Biome getBaseBiome() {
-        return baseBiome;
+        // Resolved on use, biomes come from the server's registry
+        switch (this) {
+            case SCULK_FOREST:
+                return Biome.DEEP_DARK;
+            case AMETHYST_FOREST:
+                return Biome.END_HIGHLANDS;
+            default:
+                return Biome.WARPED_FOREST;
+        }
     }
 
     public String getDisplayName() {
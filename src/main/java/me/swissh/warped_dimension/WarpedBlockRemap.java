@@ -0,0 +1,99 @@
+package me.swissh.warped_dimension;
+
+import org.bukkit.Material;
+
+/**
+ * Precomputed block replacement tables for the Warped Dimension surface pass.
+ * One table per biome, indexed by Material ordinal, so generateSurface resolves
+ * each block with a single array load instead of comparisons and name checks.
+ */
+public class WarpedBlockRemap {
+
+    /**
+     * Marker entry for blocks that are rolled per block instead of mapped directly
+     * (the sculk forest patchwork of warped nylium and sculk)
+     */
+    public static final Material PATCHWORK = Material.GRASS_BLOCK;
+
+    // Built once when the class is loaded: [biome ordinal][material ordinal]
+    private static final Material[][] TABLES = buildTables();
+
+    /**
+     * Get the replacement table for a biome. Entries are null for blocks that stay untouched.
+     * The returned array is shared and must not be modified.
+     */
+    public static Material[] forBiome(WarpedBiomes biomeType) {
+        return TABLES[biomeType.ordinal()];
+    }
+
+    private static Material[][] buildTables() {
+        Material[] materials = Material.values();
+        WarpedBiomes[] biomes = WarpedBiomes.values();
+        Material[][] tables = new Material[biomes.length][materials.length];
+
+        for (WarpedBiomes biomeType : biomes) {
+            Material[] table = tables[biomeType.ordinal()];
+            for (Material block : materials) {
+                table[block.ordinal()] = resolve(block, biomeType);
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * The replacement rules themselves, evaluated once per Material and biome while the
+     * tables are built. Returns null when the block is left as generated.
+     */
+    private static Material resolve(Material block, WarpedBiomes biomeType) {
+        // Replace stone with amethyst block
+        if (block == Material.STONE || block == Material.DEEPSLATE ||
+            block == Material.GRANITE || block == Material.DIORITE ||
+            block == Material.ANDESITE || block == Material.TUFF) {
+            return Material.AMETHYST_BLOCK;
+        }
+        // Replace dirt with sculk
+        if (block == Material.DIRT || block == Material.COARSE_DIRT ||
+            block == Material.ROOTED_DIRT || block == Material.PODZOL) {
+            return Material.SCULK;
+        }
+        // Replace grass block with appropriate surface based on biome
+        if (block == Material.GRASS_BLOCK) {
+            if (biomeType == WarpedBiomes.AMETHYST_FOREST) {
+                // In amethyst forest, primarily sculk with amethyst clusters
+                return Material.SCULK;
+            } else if (biomeType == WarpedBiomes.SCULK_FOREST) {
+                // In sculk forest, decided per block by the generator
+                return PATCHWORK;
+            }
+            // Regular warped forest
+            return Material.WARPED_NYLIUM;
+        }
+        // Replace tall grass, ferns, etc. with warped roots
+        if (block == Material.SHORT_GRASS || block == Material.TALL_GRASS ||
+            block == Material.FERN || block == Material.LARGE_FERN ||
+            block == Material.DEAD_BUSH || block == Material.DANDELION ||
+            block == Material.POPPY || block == Material.BLUE_ORCHID ||
+            block == Material.ALLIUM || block == Material.AZURE_BLUET ||
+            block == Material.RED_TULIP || block == Material.ORANGE_TULIP ||
+            block == Material.WHITE_TULIP || block == Material.PINK_TULIP ||
+            block == Material.OXEYE_DAISY || block == Material.CORNFLOWER ||
+            block == Material.LILY_OF_THE_VALLEY || block == Material.SUNFLOWER ||
+            block == Material.LILAC || block == Material.ROSE_BUSH ||
+            block == Material.PEONY) {
+            return Material.WARPED_ROOTS;
+        }
+        // Remove lava
+        if (block == Material.LAVA) {
+            return Material.AIR;
+        }
+        // Replace tree leaves with warped wart blocks
+        if (block.name().contains("LEAVES")) {
+            return Material.WARPED_WART_BLOCK;
+        }
+        // Replace tree logs with warped stems
+        if (block.name().contains("LOG") || block.name().contains("WOOD")) {
+            return Material.WARPED_STEM;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,94 @@
+package me.swissh.warped_dimension;
+
+import org.bukkit.Material;
+import org.bukkit.generator.LimitedRegion;
+import org.bukkit.generator.WorldInfo;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Random;
+
+/**
+ * Everything the features need about the chunk being populated, computed once per chunk
+ */
+public class WarpedChunkContext {
+
+    private final WorldInfo worldInfo;
+    private final int chunkX;
+    private final int chunkZ;
+    private final LimitedRegion region;
+    private final WarpedBiomes biomeType;
+    private final long decorationSeed;
+    private final WarpedSurfaceIndex surfaceIndex;
+
+    public WarpedChunkContext(@NotNull WorldInfo worldInfo, int chunkX, int chunkZ, @NotNull LimitedRegion region) {
+        this.worldInfo = worldInfo;
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+        this.region = region;
+        this.biomeType = WarpedBiomeCache.forSeed(worldInfo.getSeed()).getChunkBiome(chunkX, chunkZ);
+        this.decorationSeed = decorationSeed(worldInfo.getSeed(), chunkX, chunkZ);
+        this.surfaceIndex = new WarpedSurfaceIndex(region, chunkX, chunkZ, worldInfo.getMinHeight(), worldInfo.getMaxHeight());
+    }
+
+    public WorldInfo getWorldInfo() {
+        return worldInfo;
+    }
+
+    public int getChunkX() {
+        return chunkX;
+    }
+
+    public int getChunkZ() {
+        return chunkZ;
+    }
+
+    public LimitedRegion getRegion() {
+        return region;
+    }
+
+    public WarpedBiomes getBiomeType() {
+        return biomeType;
+    }
+
+    public boolean isInRegion(int x, int y, int z) {
+        return region.isInRegion(x, y, z);
+    }
+
+    public Material getType(int x, int y, int z) {
+        return region.getType(x, y, z);
+    }
+
+    /**
+     * Place a block. Features must place blocks through here so the surface index stays current.
+     */
+    public void setType(int x, int y, int z, Material material) {
+        region.setType(x, y, z, material);
+        surfaceIndex.update(x, y, z, material);
+    }
+
+    /**
+     * Get the Y just above the highest non-air block of a column in this chunk
+     */
+    public int getSurfaceY(int x, int z) {
+        return surfaceIndex.getSurfaceY(x, z);
+    }
+
+    /**
+     * Create a fresh random stream for one feature. The server hands every BlockPopulator
+     * its own Random seeded with the chunk's decoration seed, so each stream starts from
+     * that same state.
+     */
+    public Random newFeatureRandom() {
+        return new Random(decorationSeed);
+    }
+
+    /**
+     * Same seed as vanilla WorldgenRandom.setDecorationSeed(worldSeed, chunkX, chunkZ)
+     */
+    static long decorationSeed(long worldSeed, int chunkX, int chunkZ) {
+        Random random = new Random(worldSeed);
+        long a = random.nextLong() | 1L;
+        long b = random.nextLong() | 1L;
+        return ((long) chunkX * a + (long) chunkZ * b) ^ worldSeed;
+    }
+}
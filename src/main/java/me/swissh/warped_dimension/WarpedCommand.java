@@ -10,18 +10,37 @@ import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.bukkit.Sound;
 
-import java.util.Random;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class WarpedCommand implements CommandExecutor {
 
     private final Warped_dimension plugin;
+    private final WarpedRuinsLocator ruinsLocator;
 
-    public WarpedCommand(Warped_dimension plugin) {
+    public WarpedCommand(Warped_dimension plugin, WarpedRuinsLocator ruinsLocator) {
         this.plugin = plugin;
+        this.ruinsLocator = ruinsLocator;
     }
 
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        // Admin subcommands also work from the console
+        if (args.length > 0 && args[0].equalsIgnoreCase("stats")) {
+            return handleStats(sender, args);
+        }
+        if (args.length > 0 && args[0].equalsIgnoreCase("pregen")) {
+            return handlePregen(sender, args);
+        }
+        if (args.length > 0 && args[0].equalsIgnoreCase("journal")) {
+            return handleJournal(sender, args);
+        }
+
         if (!(sender instanceof Player)) {
             sender.sendMessage("§cOnly players can use this command!");
             return true;
@@ -44,92 +63,78 @@ public class WarpedCommand implements CommandExecutor {
             }
         }
 
-        // Default: teleport to warped dimension
-        Location spawnLocation = getSafeSpawnLocation(warpedWorld);
+        // Default: teleport to warped dimension once the chunks around spawn are loaded,
+        // the safe spot search looks up to 10 blocks around it
+        Location spawn = warpedWorld.getSpawnLocation();
+        CompletableFuture<Void> admitted = plugin.getTeleportScheduler()
+            .admit(player, warpedWorld, spawn.getBlockX() >> 4, spawn.getBlockZ() >> 4, 1);
+        if (admitted == null) {
+            player.sendMessage("§cYou are already waiting for a teleport!");
+            return true;
+        }
 
-        // Play teleportation sound effect
-        player.playSound(player.getLocation(), Sound.BLOCK_PORTAL_TRAVEL, 1.0f, 1.0f);
+        admitted.thenRun(() -> {
+            if (!player.isOnline()) {
+                return;
+            }
+            Location spawnLocation = getSafeSpawnLocation(warpedWorld);
 
-        // Teleport the player
-        player.teleport(spawnLocation);
+            // Play teleportation sound effect
+            player.playSound(player.getLocation(), Sound.BLOCK_PORTAL_TRAVEL, 1.0f, 1.0f);
 
-        // Play arrival sound
-        player.playSound(spawnLocation, Sound.BLOCK_PORTAL_TRAVEL, 1.0f, 1.0f);
-        player.sendMessage("§d§lWelcome to the Warped Dimension!");
+            // Teleport the player
+            player.teleportAsync(spawnLocation).thenAccept(success -> {
+                if (success) {
+                    // Play arrival sound
+                    player.playSound(spawnLocation, Sound.BLOCK_PORTAL_TRAVEL, 1.0f, 1.0f);
+                    player.sendMessage("§d§lWelcome to the Warped Dimension!");
+                }
+            });
+        });
 
         return true;
     }
 
     private boolean handleLocateRuins(Player player, World warpedWorld) {
-        // Search for ruins in a smaller, more manageable area
-        Location playerLoc = player.getLocation();
-        int searchRadius = 500; // Reduced search radius for faster execution
-        int chunkRadius = searchRadius / 16;
-        
-        player.sendMessage("§e§lSearching for warped ruins...");
-        
-        Location nearestRuins = null;
-        double nearestDistance = Double.MAX_VALUE;
-        
-        // Limit the search to prevent long execution times
-        int maxChunks = 50; // Maximum chunks to check
-        int checkedChunks = 0;
-        
-        for (int chunkX = -chunkRadius; chunkX <= chunkRadius && checkedChunks < maxChunks; chunkX++) {
-            for (int chunkZ = -chunkRadius; chunkZ <= chunkRadius && checkedChunks < maxChunks; chunkZ++) {
-                checkedChunks++;
-                
-                int worldChunkX = (playerLoc.getBlockX() >> 4) + chunkX;
-                int worldChunkZ = (playerLoc.getBlockZ() >> 4) + chunkZ;
-                
-                // Check if this chunk should have ruins (1% chance)
-                long seed = warpedWorld.getSeed();
-                Random random = new Random(seed + worldChunkX * 341873128712L + worldChunkZ * 132897987541L);
-                
-                if (random.nextDouble() < 0.01) { // 1% chance
-                    // This chunk should have ruins
-                    int centerX = worldChunkX * 16 + 8;
-                    int centerZ = worldChunkZ * 16 + 8;
-                    int centerY = 64; // Default Y level for ruins
-                    
-                    Location ruinsLocation = new Location(warpedWorld, centerX, centerY, centerZ);
-                    double distance = playerLoc.distance(ruinsLocation);
-                    
-                    if (distance <= searchRadius && distance < nearestDistance) {
-                        nearestRuins = ruinsLocation;
-                        nearestDistance = distance;
-                    }
-                }
-            }
-        }
-        
-        if (nearestRuins != null) {
-            // Found ruins nearby
-            player.sendMessage("§a§lFound warped ruins at: §f" + 
-                nearestRuins.getBlockX() + ", " + nearestRuins.getBlockY() + ", " + nearestRuins.getBlockZ() + 
-                " §7(distance: " + String.format("%.1f", nearestDistance) + " blocks)");
-            
-            // Calculate relative coordinates
-            int relX = nearestRuins.getBlockX() - playerLoc.getBlockX();
-            int relY = nearestRuins.getBlockY() - playerLoc.getBlockY();
-            int relZ = nearestRuins.getBlockZ() - playerLoc.getBlockZ();
-            
-            player.sendMessage("§eRelative coordinates: §f" + relX + ", " + relY + ", " + relZ);
-            
-            // Give direction hints
-            String direction = getDirection(relX, relZ);
-            player.sendMessage("§eDirection: §f" + direction);
-            
-            // Set compass target to the ruins
-            player.setCompassTarget(nearestRuins);
-            player.sendMessage("§eYour compass now points to the ruins!");
-            
+        // Ruins placement is a fixed grid, searched region by region off the main thread
+        boolean started = ruinsLocator.locate(player, warpedWorld, ruins -> sendRuinsLocation(player, warpedWorld, ruins));
+        if (!started) {
+            player.sendMessage("§cYou are already searching for warped ruins!");
             return true;
-        } else {
-            player.sendMessage("§cNo warped ruins found within " + searchRadius + " blocks.");
+        }
+
+        player.sendMessage("§e§lSearching for warped ruins...");
+        return true;
+    }
+
+    private void sendRuinsLocation(Player player, World warpedWorld, int[] ruins) {
+        if (ruins == null) {
+            player.sendMessage("§cNo warped ruins found within " + ruinsLocator.getSearchRadius() + " blocks.");
             player.sendMessage("§7Try exploring further or use §f/warped §7to teleport to a new area.");
-            return true;
+            return;
         }
+
+        // Ruins are built on the terrain, the height is only known once the chunk exists
+        Location playerLoc = player.getLocation();
+        Location nearestRuins = new Location(warpedWorld, ruins[0], playerLoc.getBlockY(), ruins[1]);
+        int relX = nearestRuins.getBlockX() - playerLoc.getBlockX();
+        int relZ = nearestRuins.getBlockZ() - playerLoc.getBlockZ();
+        double nearestDistance = Math.sqrt((double) relX * relX + (double) relZ * relZ);
+
+        // Found ruins nearby
+        player.sendMessage("§a§lFound warped ruins at: §f" +
+            nearestRuins.getBlockX() + ", ~, " + nearestRuins.getBlockZ() +
+            " §7(distance: " + String.format("%.1f", nearestDistance) + " blocks)");
+
+        player.sendMessage("§eRelative coordinates: §f" + relX + ", ~, " + relZ);
+
+        // Give direction hints
+        String direction = getDirection(relX, relZ);
+        player.sendMessage("§eDirection: §f" + direction);
+
+        // Set compass target to the ruins
+        player.setCompassTarget(nearestRuins);
+        player.sendMessage("§eYour compass now points to the ruins!");
     }
 
     private boolean handleHelp(Player player) {
@@ -138,6 +143,223 @@ public class WarpedCommand implements CommandExecutor {
         player.sendMessage("§f/warped ruins §7- Locate nearby warped ruins");
         player.sendMessage("§f/warped locate §7- Same as ruins command");
         player.sendMessage("§f/warped help §7- Show this help message");
+        if (player.hasPermission("warped.admin")) {
+            player.sendMessage("§f/warped stats [reset|csv] §7- Show, clear or export world generation timings");
+            player.sendMessage("§f/warped stats portals §7- Show portal teleport paths, costs and latency per world");
+            player.sendMessage("§f/warped pregen <radius> [portals] §7- Pregenerate chunks around spawn or portals");
+            player.sendMessage("§f/warped pregen [status|stop] §7- Show or stop pregeneration");
+            player.sendMessage("§f/warped journal [dump] §7- Show or save recent portal and spawner events");
+        }
+        return true;
+    }
+
+    private boolean handlePregen(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("warped.admin")) {
+            sender.sendMessage("§cYou don't have permission to use this command!");
+            return true;
+        }
+
+        WarpedPregenerator pregenerator = plugin.getPregenerator();
+        if (args.length < 2 || args[1].equalsIgnoreCase("status")) {
+            sender.sendMessage(pregenerator.getStatus());
+            return true;
+        }
+
+        if (args[1].equalsIgnoreCase("stop")) {
+            if (pregenerator.stop()) {
+                sender.sendMessage("§aPregeneration stopped.");
+            } else {
+                sender.sendMessage("§7No pregeneration running.");
+            }
+            return true;
+        }
+
+        int radius;
+        try {
+            radius = Integer.parseInt(args[1]);
+        } catch (NumberFormatException e) {
+            sender.sendMessage("§cUsage: /warped pregen <radius in blocks> [portals] | status | stop");
+            return true;
+        }
+        if (radius < 16 || radius > 30000) {
+            sender.sendMessage("§cRadius must be between 16 and 30000 blocks.");
+            return true;
+        }
+
+        World warpedWorld = Bukkit.getWorld("warped_dimension");
+        if (warpedWorld == null) {
+            sender.sendMessage("§cWarped Dimension world is not loaded!");
+            return true;
+        }
+
+        // Centers in chunk coordinates, either spawn or every registered portal
+        List<int[]> centers = new ArrayList<>();
+        boolean aroundPortals = args.length > 2 && args[2].equalsIgnoreCase("portals");
+        if (aroundPortals) {
+            for (Location portal : plugin.getPortalListener().getRegisteredPortals(warpedWorld.getName())) {
+                centers.add(new int[] { portal.getBlockX() >> 4, portal.getBlockZ() >> 4 });
+            }
+            if (centers.isEmpty()) {
+                sender.sendMessage("§cThere are no registered portals in the Warped Dimension.");
+                return true;
+            }
+        } else {
+            Location spawn = warpedWorld.getSpawnLocation();
+            centers.add(new int[] { spawn.getBlockX() >> 4, spawn.getBlockZ() >> 4 });
+        }
+
+        int chunkRadius = (radius + 15) >> 4;
+        if (!pregenerator.start(warpedWorld, chunkRadius, centers)) {
+            sender.sendMessage("§cPregeneration is already running, use §f/warped pregen stop §cfirst.");
+            return true;
+        }
+
+        sender.sendMessage("§aPregenerating a " + radius + " block radius around " +
+            (aroundPortals ? centers.size() + " portal(s)" : "spawn") + ". §7Check progress with §f/warped pregen status§7.");
+        return true;
+    }
+
+    private boolean handleStats(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("warped.admin")) {
+            sender.sendMessage("§cYou don't have permission to use this command!");
+            return true;
+        }
+
+        if (args.length > 1 && args[1].equalsIgnoreCase("reset")) {
+            WarpedProfiler.reset();
+            WarpedPortalMetrics.reset();
+            sender.sendMessage("§aWorld generation timings and portal metrics reset.");
+            return true;
+        }
+
+        if (args.length > 1 && args[1].equalsIgnoreCase("portals")) {
+            return showPortalStats(sender);
+        }
+
+        if (args.length > 1 && args[1].equalsIgnoreCase("csv")) {
+            return dumpStatsCsv(sender);
+        }
+
+        sender.sendMessage("§d§l=== Warped Dimension Generation Timings ===");
+        boolean any = false;
+        for (WarpedProfiler.Stage stage : WarpedProfiler.getStages()) {
+            long count = stage.getCount();
+            if (count == 0) {
+                continue;
+            }
+            any = true;
+            sender.sendMessage(String.format("§f%s §7x%d  avg §f%.3fms  §7p50 §f%.3fms  §7p99 §f%.3fms  §7max §f%.3fms  §7total §f%.1fms",
+                stage.getName(), count,
+                stage.getTotalNanos() / (double) count / 1_000_000.0,
+                stage.getPercentileNanos(50) / 1_000_000.0,
+                stage.getPercentileNanos(99) / 1_000_000.0,
+                stage.getMaxNanos() / 1_000_000.0,
+                stage.getTotalNanos() / 1_000_000.0));
+        }
+        if (!any) {
+            sender.sendMessage("§7No chunks generated since the last reset.");
+        }
+
+        WarpedPortalKeepAlive keepAlive = plugin.getPortalListener().getKeepAlive();
+        sender.sendMessage(String.format("§fPortal chunk tickets §7held §f%d§7/%d  added §f%d  §7prefetched §f%d  §7released idle §f%d  §7released at cap §f%d",
+            keepAlive.getHeld(), keepAlive.getMaxChunks(), keepAlive.getAdded(), keepAlive.getPrefetched(),
+            keepAlive.getReleasedIdle(), keepAlive.getReleasedCap()));
+        sender.sendMessage("§fTeleports waiting for chunks §7" + plugin.getTeleportScheduler().getQueued());
+        return true;
+    }
+
+    private boolean showPortalStats(CommandSender sender) {
+        sender.sendMessage("§d§l=== Warped Portal Teleports ===");
+        List<WarpedPortalMetrics.WorldStats> worlds = WarpedPortalMetrics.getWorlds();
+        if (worlds.isEmpty()) {
+            sender.sendMessage("§7No portal teleports since the last reset.");
+            return true;
+        }
+
+        for (WarpedPortalMetrics.WorldStats world : worlds) {
+            WarpedPortalMetrics.Distribution latency = world.getLatencyNanos();
+            StringBuilder paths = new StringBuilder();
+            for (WarpedPortalMetrics.Path path : WarpedPortalMetrics.Path.values()) {
+                paths.append(" §7").append(path.name().toLowerCase()).append(" §f").append(world.getCount(path));
+            }
+            sender.sendMessage("§f" + world.getName() + " §7x" + latency.getCount() + paths);
+            sender.sendMessage(String.format("  §7latency avg §f%.1fms  §7p50 §f%.1fms  §7p99 §f%.1fms  §7max §f%.1fms",
+                latency.getAverage() / 1_000_000.0,
+                latency.getPercentile(50) / 1_000_000.0,
+                latency.getPercentile(99) / 1_000_000.0,
+                latency.getMax() / 1_000_000.0));
+            sendDistribution(sender, "chunks loaded", world.getChunksLoaded());
+            sendDistribution(sender, "blocks scanned", world.getBlocksScanned());
+        }
+        return true;
+    }
+
+    private void sendDistribution(CommandSender sender, String name, WarpedPortalMetrics.Distribution distribution) {
+        sender.sendMessage(String.format("  §7%s avg §f%.1f  §7p50 §f%d  §7p99 §f%d  §7max §f%d",
+            name, distribution.getAverage(), distribution.getPercentile(50),
+            distribution.getPercentile(99), distribution.getMax()));
+    }
+
+    private boolean dumpStatsCsv(CommandSender sender) {
+        File file = new File(plugin.getDataFolder(), "stats-" + System.currentTimeMillis() + ".csv");
+        List<String> lines = new ArrayList<>();
+        lines.add("stage,count,total_ns,avg_ns,p50_ns,p99_ns,max_ns");
+        for (WarpedProfiler.Stage stage : WarpedProfiler.getStages()) {
+            long count = stage.getCount();
+            lines.add(stage.getName() + "," + count + "," + stage.getTotalNanos() + "," +
+                (count == 0 ? 0 : stage.getTotalNanos() / count) + "," +
+                stage.getPercentileNanos(50) + "," + stage.getPercentileNanos(99) + "," + stage.getMaxNanos());
+        }
+
+        try {
+            plugin.getDataFolder().mkdirs();
+            Files.write(file.toPath(), lines, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            sender.sendMessage("§cCould not write " + file.getName() + ": " + e.getMessage());
+            return true;
+        }
+        sender.sendMessage("§aWorld generation timings written to §f" + file.getName());
+        return true;
+    }
+
+    private boolean handleJournal(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("warped.admin")) {
+            sender.sendMessage("§cYou don't have permission to use this command!");
+            return true;
+        }
+
+        if (args.length < 2 || !args[1].equalsIgnoreCase("dump")) {
+            List<WarpedJournal.Entry> entries = WarpedJournal.getRecent(15);
+            sender.sendMessage("§d§l=== Recent Warped Events ===");
+            if (entries.isEmpty()) {
+                sender.sendMessage("§7No events recorded yet.");
+            }
+            for (WarpedJournal.Entry entry : entries) {
+                sender.sendMessage("§7" + entry.format());
+            }
+            return true;
+        }
+
+        // Copy the ring now, format and write it off the main thread
+        List<WarpedJournal.Entry> entries = WarpedJournal.getAll();
+        File file = new File(plugin.getDataFolder(), "journal-" + System.currentTimeMillis() + ".txt");
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            List<String> lines = new ArrayList<>(entries.size());
+            for (WarpedJournal.Entry entry : entries) {
+                lines.add(entry.format());
+            }
+
+            String message;
+            try {
+                plugin.getDataFolder().mkdirs();
+                Files.write(file.toPath(), lines, StandardCharsets.UTF_8);
+                message = "§a" + lines.size() + " events written to §f" + file.getName();
+            } catch (IOException e) {
+                message = "§cCould not write " + file.getName() + ": " + e.getMessage();
+            }
+            String result = message;
+            Bukkit.getScheduler().runTask(plugin, () -> sender.sendMessage(result));
+        });
         return true;
     }
 
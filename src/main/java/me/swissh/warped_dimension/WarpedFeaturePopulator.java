@@ -0,0 +1,57 @@
+package me.swissh.warped_dimension;
+
+import org.bukkit.generator.BlockPopulator;
+import org.bukkit.generator.LimitedRegion;
+import org.bukkit.generator.WorldInfo;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Random;
+
+/**
+ * Base class for the Warped Dimension features. Each feature can run on its own as a
+ * BlockPopulator, or be dispatched by the WarpedPopulatorPipeline with a shared chunk context.
+ */
+public abstract class WarpedFeaturePopulator extends BlockPopulator {
+
+    private volatile WarpedProfiler.Stage timing;
+
+    /**
+     * Short name used for timings
+     */
+    public abstract String getName();
+
+    /**
+     * Check if this feature generates in a biome
+     */
+    public abstract boolean appliesTo(WarpedBiomes biomeType);
+
+    /**
+     * Generate this feature in the context's chunk
+     */
+    public abstract void generate(@NotNull WarpedChunkContext context, @NotNull Random random);
+
+    @Override
+    public void populate(@NotNull WorldInfo worldInfo, @NotNull Random random, int chunkX, int chunkZ, @NotNull LimitedRegion limitedRegion) {
+        // Only populate in the warped dimension
+        if (!worldInfo.getName().equals("warped_dimension")) {
+            return;
+        }
+
+        WarpedChunkContext context = new WarpedChunkContext(worldInfo, chunkX, chunkZ, limitedRegion);
+        if (appliesTo(context.getBiomeType())) {
+            long start = System.nanoTime();
+            generate(context, random);
+            getTiming().record(System.nanoTime() - start);
+        }
+    }
+
+    private WarpedProfiler.Stage getTiming() {
+        // Same stage the pipeline records into, looked up once
+        WarpedProfiler.Stage stage = timing;
+        if (stage == null) {
+            stage = WarpedProfiler.stage("feature." + getName());
+            timing = stage;
+        }
+        return stage;
+    }
+}
@@ -0,0 +1,143 @@
+package me.swissh.warped_dimension;
+
+import java.lang.invoke.VarHandle;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Logger;
+
+/**
+ * Fixed-size ring of recent portal and spawner events. Recording writes a few fields into
+ * preallocated arrays without locking or formatting, so it is cheap enough for every teleport;
+ * events are only turned into text when the journal is dumped, or logged as they happen
+ * when debug logging is enabled.
+ */
+public class WarpedJournal {
+
+    public enum Type {
+        TELEPORT_START,
+        LINKED_HIT,
+        REGISTRY_HIT,
+        INSTANT_HIT,
+        QUICK_HIT,
+        EXTENSIVE_HIT,
+        PORTAL_BUILT,
+        TELEPORT_DONE,
+        LINK_STALE,
+        FRAME_BROKEN,
+        PORTAL_REGISTERED,
+        CHUNK_LOADED,
+        HERD_SPAWNED
+    }
+
+    private static final int CAPACITY = 4096; // Power of two
+    private static final int MASK = CAPACITY - 1;
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    private static final AtomicLong NEXT = new AtomicLong();
+    // Sequence number written to each slot, -1 while the slot is being written
+    private static final AtomicLongArray PUBLISHED = new AtomicLongArray(CAPACITY);
+    private static final long[] TIMES = new long[CAPACITY];
+    private static final Type[] TYPES = new Type[CAPACITY];
+    private static final String[] WORLDS = new String[CAPACITY];
+    private static final long[] POSITIONS = new long[CAPACITY];
+    private static final long[] VALUES = new long[CAPACITY];
+    private static final String[] SUBJECTS = new String[CAPACITY];
+
+    private static volatile Logger debugLogger;
+
+    static {
+        for (int i = 0; i < CAPACITY; i++) {
+            PUBLISHED.set(i, -1);
+        }
+    }
+
+    /**
+     * Also log every event as it is recorded, or stop with null
+     */
+    public static void setDebugLogger(Logger logger) {
+        debugLogger = logger;
+    }
+
+    /**
+     * Record an event. Safe to call from any thread.
+     *
+     * @param value   event specific number, such as a count or a portal id
+     * @param subject usually the player's name, may be null
+     */
+    public static void record(Type type, String world, int x, int y, int z, long value, String subject) {
+        long time = System.currentTimeMillis();
+        long position = WarpedCoords.pack(x, y, z);
+        long sequence = NEXT.getAndIncrement();
+        int slot = (int) (sequence & MASK);
+
+        // Readers skip the slot until its sequence is published again
+        PUBLISHED.set(slot, -1);
+        VarHandle.storeStoreFence();
+        TIMES[slot] = time;
+        TYPES[slot] = type;
+        WORLDS[slot] = world;
+        POSITIONS[slot] = position;
+        VALUES[slot] = value;
+        SUBJECTS[slot] = subject;
+        PUBLISHED.setRelease(slot, sequence);
+
+        Logger logger = debugLogger;
+        if (logger != null) {
+            logger.info(new Entry(time, type, world, position, value, subject).format());
+        }
+    }
+
+    /**
+     * The most recent events, oldest first
+     */
+    public static List<Entry> getRecent(int limit) {
+        long end = NEXT.get();
+        long start = Math.max(0, end - Math.min(limit, CAPACITY));
+        List<Entry> entries = new ArrayList<>((int) (end - start));
+        for (long sequence = start; sequence < end; sequence++) {
+            int slot = (int) (sequence & MASK);
+            if (PUBLISHED.getAcquire(slot) != sequence) {
+                continue; // Still being written, or already overwritten
+            }
+            Entry entry = new Entry(TIMES[slot], TYPES[slot], WORLDS[slot], POSITIONS[slot], VALUES[slot], SUBJECTS[slot]);
+            VarHandle.loadLoadFence();
+            if (PUBLISHED.get(slot) == sequence) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    public static List<Entry> getAll() {
+        return getRecent(CAPACITY);
+    }
+
+    public static class Entry {
+        private final long time;
+        private final Type type;
+        private final String world;
+        private final long position;
+        private final long value;
+        private final String subject;
+
+        private Entry(long time, Type type, String world, long position, long value, String subject) {
+            this.time = time;
+            this.type = type;
+            this.world = world;
+            this.position = position;
+            this.value = value;
+            this.subject = subject;
+        }
+
+        public String format() {
+            return TIME_FORMAT.format(Instant.ofEpochMilli(time)) + " " + type + " " + world + " " +
+                WarpedCoords.unpackX(position) + "," + WarpedCoords.unpackY(position) + "," + WarpedCoords.unpackZ(position) +
+                " " + value + (subject != null ? " " + subject : "");
+        }
+    }
+}
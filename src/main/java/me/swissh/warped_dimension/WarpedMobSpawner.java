@@ -147,6 +147,7 @@ public class WarpedMobSpawner extends BukkitRunnable {
         
         // Choose primary mob type for the herd (70% cows, 30% chickens)
         EntityType primaryType = random.nextDouble() < 0.7 ? EntityType.COW : EntityType.CHICKEN;
+        int spawned = 0;
         
         for (int i = 0; i < herdSize; i++) {
             // Add random offset for each mob in the herd
@@ -169,8 +170,12 @@ public class WarpedMobSpawner extends BukkitRunnable {
                     Chicken chicken = (Chicken) world.spawnEntity(spawnLoc, EntityType.CHICKEN);
                     chicken.setVariant(Chicken.Variant.COLD);
                 }
+                spawned++;
             }
         }
+
+        WarpedJournal.record(WarpedJournal.Type.HERD_SPAWNED, world.getName(),
+            centerLoc.getBlockX(), centerLoc.getBlockY(), centerLoc.getBlockZ(), spawned, primaryType.name());
     }
 
     private int countPassiveMobsInArea(Location center) {
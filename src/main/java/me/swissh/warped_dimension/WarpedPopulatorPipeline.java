@@ -0,0 +1,71 @@
+package me.swissh.warped_dimension;
+
+import org.bukkit.generator.BlockPopulator;
+import org.bukkit.generator.LimitedRegion;
+import org.bukkit.generator.WorldInfo;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * Single populator that builds the chunk context once and dispatches to every feature.
+ * Each feature gets its own random stream starting from the same state the server would
+ * give it as a standalone BlockPopulator, so the output matches the separate populators.
+ */
+public class WarpedPopulatorPipeline extends BlockPopulator {
+
+    private final Logger logger;
+    private final List<WarpedFeaturePopulator> features;
+    private final WarpedProfiler.Stage[] timings;
+    private final WarpedProfiler.Stage totalTiming = WarpedProfiler.stage("populator.pipeline");
+    private final AtomicBoolean randomChecked = new AtomicBoolean();
+
+    public WarpedPopulatorPipeline(Logger logger, List<WarpedFeaturePopulator> features) {
+        this.logger = logger;
+        this.features = List.copyOf(features);
+        this.timings = new WarpedProfiler.Stage[this.features.size()];
+        for (int i = 0; i < timings.length; i++) {
+            timings[i] = WarpedProfiler.stage("feature." + this.features.get(i).getName());
+        }
+    }
+
+    @Override
+    public void populate(@NotNull WorldInfo worldInfo, @NotNull Random random, int chunkX, int chunkZ, @NotNull LimitedRegion limitedRegion) {
+        // Only populate in the warped dimension
+        if (!worldInfo.getName().equals("warped_dimension")) {
+            return;
+        }
+
+        long pipelineStart = System.nanoTime();
+        WarpedChunkContext context = new WarpedChunkContext(worldInfo, chunkX, chunkZ, limitedRegion);
+        if (randomChecked.compareAndSet(false, true)) {
+            checkRandomStream(random, context);
+        }
+
+        for (int i = 0; i < features.size(); i++) {
+            WarpedFeaturePopulator feature = features.get(i);
+            if (!feature.appliesTo(context.getBiomeType())) {
+                continue;
+            }
+
+            long start = System.nanoTime();
+            feature.generate(context, context.newFeatureRandom());
+            timings[i].record(System.nanoTime() - start);
+        }
+        totalTiming.record(System.nanoTime() - pipelineStart);
+    }
+
+    /**
+     * Compare the first draw of the server's populator Random with our own feature stream.
+     * The server's Random is not used otherwise, so drawing from it changes nothing.
+     */
+    private void checkRandomStream(Random random, WarpedChunkContext context) {
+        if (random.nextLong() != context.newFeatureRandom().nextLong()) {
+            logger.warning("Populator pipeline random streams do not match the server's populator seeds. "
+                + "Features will differ from generation.composite-populators: false");
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package me.swissh.warped_dimension;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+
+/**
+ * A registered portal destination: a packed block position plus which of the
+ * horizontal axes are offset by half a block to the block center. Every portal has
+ * an id that is never reused, and the id of the portal it links to, or 0.
+ */
+public class WarpedPortal {
+
+    public static final int HALF_X = 1;
+    public static final int HALF_Z = 2;
+
+    private final int id;
+    private final long position;
+    private final int offsets;
+    private int linkId;
+
+    public WarpedPortal(int id, long position, int offsets, int linkId) {
+        this.id = id;
+        this.position = position;
+        this.offsets = offsets;
+        this.linkId = linkId;
+    }
+
+    /**
+     * Create from a location, rounded to the nearest half block horizontally and the block below vertically
+     */
+    public static WarpedPortal fromLocation(int id, Location location) {
+        long halfX = Math.round(location.getX() * 2);
+        long halfZ = Math.round(location.getZ() * 2);
+        int offsets = ((halfX & 1) != 0 ? HALF_X : 0) | ((halfZ & 1) != 0 ? HALF_Z : 0);
+        return new WarpedPortal(id, WarpedCoords.pack((int) Math.floorDiv(halfX, 2), location.getBlockY(), (int) Math.floorDiv(halfZ, 2)), offsets, 0);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getLinkId() {
+        return linkId;
+    }
+
+    public void setLinkId(int linkId) {
+        this.linkId = linkId;
+    }
+
+    public long getPosition() {
+        return position;
+    }
+
+    public int getOffsets() {
+        return offsets;
+    }
+
+    public int getBlockX() {
+        return WarpedCoords.unpackX(position);
+    }
+
+    public int getBlockY() {
+        return WarpedCoords.unpackY(position);
+    }
+
+    public int getBlockZ() {
+        return WarpedCoords.unpackZ(position);
+    }
+
+    public double getX() {
+        return getBlockX() + ((offsets & HALF_X) != 0 ? 0.5 : 0.0);
+    }
+
+    public double getY() {
+        return getBlockY();
+    }
+
+    public double getZ() {
+        return getBlockZ() + ((offsets & HALF_Z) != 0 ? 0.5 : 0.0);
+    }
+
+    public Location toLocation(World world) {
+        return new Location(world, getX(), getY(), getZ());
+    }
+
+    /**
+     * Squared distance with the vertical difference weighted down by 3, as used for portal linking
+     */
+    public double distanceSquared(double x, double y, double z) {
+        double dx = getX() - x;
+        double dy = (getY() - y) / 3.0;
+        double dz = getZ() - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+}
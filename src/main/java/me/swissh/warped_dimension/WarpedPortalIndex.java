@@ -0,0 +1,123 @@
+package me.swissh.warped_dimension;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Chunk-keyed hash grid of the portals in one world. Nearest and duplicate queries only
+ * look at the few chunks the search radius can reach, so they do not depend on how many
+ * portals the world has. Main thread only.
+ */
+public class WarpedPortalIndex {
+
+    private final Map<Long, List<WarpedPortal>> cells = new HashMap<>();
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Find the closest portal within a radius, or null
+     */
+    public WarpedPortal findNearest(double x, double y, double z, double radius) {
+        WarpedPortal closest = null;
+        double closestDistanceSquared = Double.MAX_VALUE;
+        double radiusSquared = radius * radius;
+
+        int minChunkX = (int) Math.floor(x - radius) >> 4;
+        int maxChunkX = (int) Math.floor(x + radius) >> 4;
+        int minChunkZ = (int) Math.floor(z - radius) >> 4;
+        int maxChunkZ = (int) Math.floor(z + radius) >> 4;
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                List<WarpedPortal> cell = cells.get(WarpedCoords.chunkKey(chunkX, chunkZ));
+                if (cell == null) {
+                    continue;
+                }
+                for (WarpedPortal portal : cell) {
+                    double distanceSquared = portal.distanceSquared(x, y, z);
+                    if (distanceSquared < closestDistanceSquared && distanceSquared <= radiusSquared) {
+                        closestDistanceSquared = distanceSquared;
+                        closest = portal;
+                    }
+                }
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * The portal registered at exactly this position and half block offsets, or null
+     */
+    public WarpedPortal get(long position, int offsets) {
+        List<WarpedPortal> cell = cells.get(WarpedCoords.chunkKey(WarpedCoords.unpackX(position) >> 4, WarpedCoords.unpackZ(position) >> 4));
+        if (cell != null) {
+            for (WarpedPortal portal : cell) {
+                if (portal.getPosition() == position && portal.getOffsets() == offsets) {
+                    return portal;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * All portals within a radius
+     */
+    public List<WarpedPortal> findWithin(double x, double y, double z, double radius) {
+        List<WarpedPortal> found = new ArrayList<>();
+        double radiusSquared = radius * radius;
+
+        int minChunkX = (int) Math.floor(x - radius) >> 4;
+        int maxChunkX = (int) Math.floor(x + radius) >> 4;
+        int minChunkZ = (int) Math.floor(z - radius) >> 4;
+        int maxChunkZ = (int) Math.floor(z + radius) >> 4;
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                List<WarpedPortal> cell = cells.get(WarpedCoords.chunkKey(chunkX, chunkZ));
+                if (cell == null) {
+                    continue;
+                }
+                for (WarpedPortal portal : cell) {
+                    if (portal.distanceSquared(x, y, z) <= radiusSquared) {
+                        found.add(portal);
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    public boolean remove(WarpedPortal portal) {
+        long key = WarpedCoords.chunkKey(portal.getBlockX() >> 4, portal.getBlockZ() >> 4);
+        List<WarpedPortal> cell = cells.get(key);
+        if (cell == null || !cell.remove(portal)) {
+            return false;
+        }
+        if (cell.isEmpty()) {
+            cells.remove(key);
+        }
+        size--;
+        return true;
+    }
+
+    public void add(WarpedPortal portal) {
+        long key = WarpedCoords.chunkKey(portal.getBlockX() >> 4, portal.getBlockZ() >> 4);
+        cells.computeIfAbsent(key, k -> new ArrayList<>(2)).add(portal);
+        size++;
+    }
+
+    /**
+     * Copy of all portals in the index
+     */
+    public List<WarpedPortal> getPortals() {
+        List<WarpedPortal> portals = new ArrayList<>(size);
+        for (List<WarpedPortal> cell : cells.values()) {
+            portals.addAll(cell);
+        }
+        return portals;
+    }
+}
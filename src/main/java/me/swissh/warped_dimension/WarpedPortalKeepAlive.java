@@ -0,0 +1,184 @@
+package me.swissh.warped_dimension;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Keeps the chunks around registered portals loaded while players are near them, using
+ * plugin chunk tickets. Tickets are released once no player has been near the portal for
+ * a while, and the least recently needed ones are released first when over the cap.
+ * Destinations of portals a player is about to use are prefetched through the same tickets.
+ */
+public class WarpedPortalKeepAlive {
+
+    private static final long UPDATE_INTERVAL = 100L; // Ticks
+
+    private final Warped_dimension plugin;
+    private final WarpedPortalRegistry portalRegistry;
+    private final double playerRadius;
+    private final long idleMillis;
+    private final int maxChunks;
+
+    // Held tickets in least recently needed order, with the time each can be released
+    private final LinkedHashMap<Ticket, Long> tickets = new LinkedHashMap<>(16, 0.75f, true);
+    private long added;
+    private long prefetched;
+    private long releasedIdle;
+    private long releasedCap;
+
+    public WarpedPortalKeepAlive(Warped_dimension plugin, WarpedPortalRegistry portalRegistry) {
+        this.plugin = plugin;
+        this.portalRegistry = portalRegistry;
+        this.playerRadius = plugin.getConfig().getDouble("portals.keepalive-radius", 128.0);
+        this.idleMillis = plugin.getConfig().getLong("portals.keepalive-idle-seconds", 60L) * 1000L;
+        this.maxChunks = Math.max(9, plugin.getConfig().getInt("portals.keepalive-max-chunks", 256));
+
+        plugin.getServer().getScheduler().runTaskTimer(plugin, this::update, UPDATE_INTERVAL, UPDATE_INTERVAL);
+    }
+
+    private void update() {
+        long now = System.currentTimeMillis();
+
+        // Keep the 3x3 chunks around every portal near a player
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            World world = player.getWorld();
+            Location location = player.getLocation();
+            for (WarpedPortal portal : portalRegistry.findWithin(world.getName(),
+                    location.getX(), location.getY(), location.getZ(), playerRadius)) {
+                int chunkX = portal.getBlockX() >> 4;
+                int chunkZ = portal.getBlockZ() >> 4;
+                for (int x = chunkX - 1; x <= chunkX + 1; x++) {
+                    for (int z = chunkZ - 1; z <= chunkZ + 1; z++) {
+                        hold(world, x, z, now + idleMillis);
+                    }
+                }
+            }
+        }
+
+        // Release tickets nobody needed recently, then the least recently needed over the cap
+        Iterator<Map.Entry<Ticket, Long>> iterator = tickets.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Ticket, Long> entry = iterator.next();
+            if (now > entry.getValue()) {
+                release(entry.getKey());
+                iterator.remove();
+                releasedIdle++;
+            }
+        }
+        iterator = tickets.entrySet().iterator();
+        while (tickets.size() > maxChunks && iterator.hasNext()) {
+            release(iterator.next().getKey());
+            iterator.remove();
+            releasedCap++;
+        }
+    }
+
+    /**
+     * Load the chunks around a portal destination in the background and hold them for a while
+     */
+    public void prefetch(World world, int chunkX, int chunkZ, int radius, long holdMillis) {
+        long until = System.currentTimeMillis() + holdMillis;
+        for (int x = chunkX - radius; x <= chunkX + radius; x++) {
+            for (int z = chunkZ - radius; z <= chunkZ + radius; z++) {
+                if (hold(world, x, z, until)) {
+                    prefetched++;
+                }
+            }
+        }
+    }
+
+    private boolean hold(World world, int chunkX, int chunkZ, long until) {
+        Ticket ticket = new Ticket(world, chunkX, chunkZ);
+        Long previous = tickets.put(ticket, until);
+        if (previous != null) {
+            if (previous > until) {
+                tickets.put(ticket, previous);
+            }
+            return false;
+        }
+
+        added++;
+        if (world.isChunkLoaded(chunkX, chunkZ)) {
+            world.addPluginChunkTicket(chunkX, chunkZ, plugin);
+        } else {
+            // Adding a ticket loads the chunk on the spot, so load it in the background first
+            world.getChunkAtAsync(chunkX, chunkZ).thenAccept(chunk -> {
+                if (tickets.containsKey(ticket)) {
+                    world.addPluginChunkTicket(chunkX, chunkZ, plugin);
+                }
+            });
+        }
+        return true;
+    }
+
+    private void release(Ticket ticket) {
+        World world = plugin.getServer().getWorld(ticket.world);
+        if (world != null) {
+            world.removePluginChunkTicket(ticket.chunkX, ticket.chunkZ, plugin);
+        }
+    }
+
+    /**
+     * Release every ticket, called on plugin disable
+     */
+    public void shutdown() {
+        for (Ticket ticket : tickets.keySet()) {
+            release(ticket);
+        }
+        tickets.clear();
+    }
+
+    public int getHeld() {
+        return tickets.size();
+    }
+
+    public int getMaxChunks() {
+        return maxChunks;
+    }
+
+    public long getAdded() {
+        return added;
+    }
+
+    public long getPrefetched() {
+        return prefetched;
+    }
+
+    public long getReleasedIdle() {
+        return releasedIdle;
+    }
+
+    public long getReleasedCap() {
+        return releasedCap;
+    }
+
+    private static class Ticket {
+        private final UUID world;
+        private final int chunkX;
+        private final int chunkZ;
+
+        private Ticket(World world, int chunkX, int chunkZ) {
+            this.world = world.getUID();
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Ticket ticket
+                && ticket.chunkX == chunkX && ticket.chunkZ == chunkZ && ticket.world.equals(world);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(world, chunkX, chunkZ);
+        }
+    }
+}
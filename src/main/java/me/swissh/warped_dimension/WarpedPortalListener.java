@@ -1,57 +1,78 @@
 package me.swissh.warped_dimension;
 
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import org.bukkit.*;
 import org.bukkit.block.Block;
-import org.bukkit.block.BlockFace;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.block.data.Orientable;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.Action;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.event.player.PlayerPortalEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.player.PlayerTeleportEvent;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 
 public class WarpedPortalListener implements Listener {
 
     private final Warped_dimension plugin;
-    // Store portal locations for better linkage (world name -> list of portal locations)
-    private final Map<String, List<Location>> portalRegistry = new HashMap<>();
-
-    public WarpedPortalListener(Warped_dimension plugin) {
+    // Registered portals and their links, saved between restarts
+    private final WarpedPortalRegistry portalRegistry;
+    // Which portal blocks belong to warped portals
+    private final WarpedPortalTags portalTags;
+    // Scans for existing portals off the main thread
+    private final WarpedPortalSearch portalSearch;
+    // Chunk tickets for portals near players
+    private final WarpedPortalKeepAlive keepAlive;
+    // Block data for built portals, created once
+    private final BlockData frameData = Bukkit.createBlockData(Material.REINFORCED_DEEPSLATE);
+    private final Map<Axis, BlockData> portalData = new EnumMap<>(Axis.class);
+    // Players whose teleport is waiting for destination chunks
+    private final Set<UUID> pendingTeleports = new HashSet<>();
+
+    // A frame block is up to about half the widest frame away from the portal's registered center
+    private static final double SOURCE_FRAME_RADIUS = 11;
+
+    public WarpedPortalListener(Warped_dimension plugin, WarpedPortalTags portalTags) {
         this.plugin = plugin;
-        // Start chunk preloading task
-        startChunkPreloading();
+        this.portalTags = portalTags;
+        this.portalSearch = new WarpedPortalSearch(plugin);
+
+        // Restore the registry saved by earlier runs
+        this.portalRegistry = new WarpedPortalRegistry(plugin);
+        portalRegistry.load();
+
+        // Keep chunks around portals near players loaded
+        this.keepAlive = new WarpedPortalKeepAlive(plugin, portalRegistry);
+
+        // Load destinations of portals players walk up to
+        new WarpedPortalPrefetcher(plugin, portalRegistry, keepAlive);
+
+        // Keep the portal log small
+        plugin.getServer().getScheduler().runTaskTimer(plugin, portalRegistry::compactIfNeeded, 6000L, 6000L); // Every 5 minutes
     }
 
-    private void startChunkPreloading() {
-        // Preload chunks around portal locations every 5 seconds
-        plugin.getServer().getScheduler().runTaskTimer(plugin, () -> {
-            for (Map.Entry<String, List<Location>> entry : portalRegistry.entrySet()) {
-                String worldName = entry.getKey();
-                World world = plugin.getServer().getWorld(worldName);
-                if (world == null) continue;
-
-                for (Location portal : entry.getValue()) {
-                    int chunkX = portal.getBlockX() >> 4;
-                    int chunkZ = portal.getBlockZ() >> 4;
-
-                    // Ensure chunks around portals are loaded
-                    for (int x = chunkX - 1; x <= chunkX + 1; x++) {
-                        for (int z = chunkZ - 1; z <= chunkZ + 1; z++) {
-                            if (!world.isChunkLoaded(x, z)) {
-                                world.loadChunk(x, z);
-                            }
-                        }
-                    }
-                }
-            }
-        }, 100L, 100L); // Every 5 seconds (100 ticks)
+    /**
+     * Stop the search workers, save the registry and stop its IO thread, called on plugin disable
+     */
+    public void shutdown() {
+        portalSearch.shutdown();
+        keepAlive.shutdown();
+        portalRegistry.shutdown();
     }
 
     @EventHandler
@@ -86,230 +107,268 @@ public class WarpedPortalListener implements Listener {
     }
 
     private boolean tryCreatePortal(Block block, Player player) {
-        // Check all possible portal orientations
-        // Use SOUTH and WEST to flip the portal plane 180 degrees along y-axis
-        BlockFace[] faces = {BlockFace.SOUTH, BlockFace.WEST};
-
-        for (BlockFace face : faces) {
-            Location portalLocation = findPortalFrame(block.getLocation(), face);
-            if (portalLocation != null) {
-                createPortal(portalLocation, face);
-                return true;
-            }
+        // One flood fill of the open area next to the clicked frame block finds the frame
+        WarpedPortalShape shape = WarpedPortalShape.find(block);
+        if (shape == null) {
+            return false;
         }
 
-        return false;
+        createPortal(block.getWorld(), shape);
+        return true;
     }
 
-    private Location findPortalFrame(Location loc, BlockFace orientation) {
-        World world = loc.getWorld();
-        if (world == null) return null;
+    private void createPortal(World world, WarpedPortalShape shape) {
+        // Fill interior with nether portal blocks
+        // The axis orientation of the portal makes the flat side align with the frame
+        BlockData data = getPortalData(shape.getAxis());
+        List<Block> portalBlocks = shape.getInterior();
+        for (Block portalBlock : portalBlocks) {
+            portalBlock.setBlockData(data, false);
+        }
+        portalTags.tag(world, portalBlocks);
 
-        // Try different positions within the frame
-        for (int offsetX = -4; offsetX <= 4; offsetX++) {
-            for (int offsetY = -4; offsetY <= 4; offsetY++) {
-                Location testLoc = loc.clone();
+        // Registered right away so the prefetcher already loads the destination before the first trip
+        registerPortal(shape.getCenter(), world.getName());
 
-                if (orientation == BlockFace.SOUTH) {
-                    testLoc.add(offsetX, offsetY, 0);
-                } else {
-                    testLoc.add(0, offsetY, offsetX);
-                }
+        // Play sound
+        world.playSound(portalBlocks.get(0).getLocation(), Sound.BLOCK_PORTAL_TRIGGER, 1.0f, 1.0f);
+    }
 
-                if (isValidPortalFrame(testLoc, orientation)) {
-                    return testLoc;
-                }
-            }
+    @EventHandler
+    public void onPlayerPortal(PlayerPortalEvent event) {
+        if (event.getCause() != PlayerTeleportEvent.TeleportCause.NETHER_PORTAL) {
+            return;
         }
 
-        return null;
-    }
+        Block block = event.getFrom().getBlock();
+        if (block.getType() != Material.NETHER_PORTAL) {
+            // Standing on the bottom frame with the feet just below the portal
+            block = block.getRelative(0, 1, 0);
+        }
 
-    private boolean isValidPortalFrame(Location corner, BlockFace orientation) {
-        World world = corner.getWorld();
-        if (world == null) return false;
+        // Check if the portal is framed with reinforced deepslate
+        if (portalTags.isWarpedPortal(block)) {
+            event.setCancelled(true);
 
-        // Check portal sizes from 4x5 (minimum nether portal size) to 23x23
-        for (int width = 4; width <= 23; width++) {
-            for (int height = 5; height <= 23; height++) {
-                if (checkPortalFrame(corner, width, height, orientation)) {
-                    return true;
-                }
+            Player player = event.getPlayer();
+            if (pendingTeleports.contains(player.getUniqueId())) {
+                // The portal fires every tick while the player stands in it
+                return;
             }
-        }
+            World currentWorld = player.getWorld();
 
-        return false;
-    }
+            // The teleport itself waits for the destination chunks off the tick
+            Location portalEntrance = event.getFrom();
+            // Links are keyed by the frame, not by where in it the player stepped
+            Location sourceFrame = getFrameCenter(block);
 
-    private boolean checkPortalFrame(Location corner, int width, int height, BlockFace orientation) {
-        World world = corner.getWorld();
-        if (world == null) return false;
+            journal(WarpedJournal.Type.TELEPORT_START, portalEntrance, 0, player.getName());
 
-        // Check if all frame blocks are reinforced deepslate
-        // Check bottom
-        for (int i = 0; i < width; i++) {
-            Location loc = corner.clone();
-            if (orientation == BlockFace.SOUTH) {
-                loc.add(i, 0, 0);
+            World toWorld;
+            if (currentWorld.getName().equals("warped_dimension")) {
+                // Return to overworld
+                toWorld = Bukkit.getWorld("world");
             } else {
-                loc.add(0, 0, i);
+                // Go to warped dimension
+                toWorld = WarpedWorldManager.getOrCreateWarpedWorld(plugin);
             }
-            if (loc.getBlock().getType() != Material.REINFORCED_DEEPSLATE) {
-                return false;
+
+            if (toWorld != null) {
+                startTeleport(player, portalEntrance, sourceFrame, toWorld);
             }
         }
+    }
 
-        // Check top
-        for (int i = 0; i < width; i++) {
-            Location loc = corner.clone();
-            if (orientation == BlockFace.SOUTH) {
-                loc.add(i, height - 1, 0);
-            } else {
-                loc.add(0, height - 1, i);
-            }
-            if (loc.getBlock().getType() != Material.REINFORCED_DEEPSLATE) {
-                return false;
+    /**
+     * Teleport a player through a warped portal without blocking the tick. The destination is
+     * guessed from the link table and registry, its chunks are loaded asynchronously, and the
+     * portal search or build and the teleport itself run once they are ready.
+     */
+    private void startTeleport(Player player, Location portalEntrance, Location sourceFrame, World toWorld) {
+        WarpedPortalMetrics.Transition transition = WarpedPortalMetrics.begin();
+        UUID playerId = player.getUniqueId();
+        pendingTeleports.add(playerId);
+        player.sendActionBar(LegacyComponentSerializer.legacySection().deserialize("§5The portal hums..."));
+
+        // Known portals only need their own chunk, searches and builds need the area around the target
+        Location cached = findLinkedDestination(sourceFrame, toWorld);
+        if (cached == null) {
+            cached = findPortalInRegistry(new Location(toWorld, portalEntrance.getX(), portalEntrance.getY(), portalEntrance.getZ()), toWorld.getName());
+        }
+        Location center = cached != null ? cached : portalEntrance;
+        int radius = cached != null ? 0 : 1;
+        int chunkX = center.getBlockX() >> 4;
+        int chunkZ = center.getBlockZ() >> 4;
+        for (int x = chunkX - radius; x <= chunkX + radius; x++) {
+            for (int z = chunkZ - radius; z <= chunkZ + radius; z++) {
+                if (!toWorld.isChunkLoaded(x, z)) {
+                    transition.addChunksLoaded(1);
+                }
             }
         }
 
-        // Check left side
-        for (int i = 1; i < height - 1; i++) {
-            Location loc = corner.clone().add(0, i, 0);
-            if (loc.getBlock().getType() != Material.REINFORCED_DEEPSLATE) {
-                return false;
-            }
+        // Chunk loads are spread over ticks when many players arrive at once
+        CompletableFuture<Void> admitted = plugin.getTeleportScheduler().admit(player, toWorld, chunkX, chunkZ, radius);
+        if (admitted == null) {
+            // Already waiting for a /warped teleport
+            pendingTeleports.remove(playerId);
+            return;
         }
 
-        // Check right side
-        for (int i = 1; i < height - 1; i++) {
-            Location loc = corner.clone();
-            if (orientation == BlockFace.SOUTH) {
-                loc.add(width - 1, i, 0);
-            } else {
-                loc.add(0, i, width - 1);
+        admitted.whenComplete((ignored, error) -> {
+            if (error instanceof CancellationException) {
+                pendingTeleports.remove(playerId);
+                return;
             }
-            if (loc.getBlock().getType() != Material.REINFORCED_DEEPSLATE) {
-                return false;
+            if (error != null) {
+                pendingTeleports.remove(playerId);
+                plugin.getLogger().warning("Failed to load destination chunks for " + player.getName() + ": " + error.getMessage());
+                return;
+            }
+            if (!player.isOnline() || !pendingTeleports.contains(playerId)) {
+                pendingTeleports.remove(playerId);
+                return;
             }
-        }
 
-        // Check if interior is air or can be filled
-        for (int x = 1; x < width - 1; x++) {
-            for (int y = 1; y < height - 1; y++) {
-                Location loc = corner.clone();
-                if (orientation == BlockFace.SOUTH) {
-                    loc.add(x, y, 0);
-                } else {
-                    loc.add(0, y, x);
+            // Everything below reads chunks that are now loaded
+            Location linked = findLinkedDestination(sourceFrame, toWorld);
+            CompletableFuture<Location> resolved;
+            if (linked != null) {
+                journal(WarpedJournal.Type.LINKED_HIT, linked, 0, player.getName());
+                resolved = CompletableFuture.completedFuture(linked);
+            } else {
+                resolved = findOrCreateLinkedPortalInstant(portalEntrance, toWorld, transition).thenApply(destination -> {
+                    linkPortals(sourceFrame, destination);
+                    return destination;
+                });
+            }
+
+            resolved.whenComplete((destination, searchError) -> {
+                if (searchError != null) {
+                    pendingTeleports.remove(playerId);
+                    plugin.getLogger().warning("Failed to resolve portal destination for " + player.getName() + ": " + searchError.getMessage());
+                    return;
                 }
-                Material type = loc.getBlock().getType();
-                if (type != Material.AIR && type != Material.NETHER_PORTAL) {
-                    return false;
+                if (!player.isOnline()) {
+                    pendingTeleports.remove(playerId);
+                    return;
                 }
-            }
-        }
+                teleport(player, destination, toWorld, transition);
+            });
+        });
+    }
 
-        return true;
+    private void teleport(Player player, Location destination, World toWorld, WarpedPortalMetrics.Transition transition) {
+        UUID playerId = player.getUniqueId();
+        player.teleportAsync(destination).whenComplete((success, teleportError) -> {
+            pendingTeleports.remove(playerId);
+            if (!Boolean.TRUE.equals(success)) {
+                return;
+            }
+            journal(WarpedJournal.Type.TELEPORT_DONE, destination, 0, player.getName());
+            WarpedPortalMetrics.record(toWorld.getName(), transition);
+            if (toWorld.getName().equals("warped_dimension")) {
+                player.sendMessage("§5Welcome to the Warped Dimension!");
+            } else {
+                player.sendMessage("§aReturned to the Overworld!");
+            }
+        });
     }
 
-    private void createPortal(Location corner, BlockFace orientation) {
-        World world = corner.getWorld();
-        if (world == null) return;
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        pendingTeleports.remove(event.getPlayer().getUniqueId());
+    }
 
-        // Find the actual dimensions
-        int width = 0;
-        int height = 0;
+    /**
+     * Resolve the destination through the link table, or null if the source frame has no live link
+     */
+    private Location findLinkedDestination(Location sourceFrame, World toWorld) {
+        WarpedPortal source = portalRegistry.getAt(sourceFrame.getWorld().getName(), sourceFrame);
+        if (source == null) {
+            return null;
+        }
 
-        for (int w = 4; w <= 23; w++) {
-            for (int h = 5; h <= 23; h++) {
-                if (checkPortalFrame(corner, w, h, orientation)) {
-                    width = w;
-                    height = h;
-                    break;
-                }
-            }
-            if (width > 0) break;
+        WarpedPortal target = portalRegistry.getLinked(source);
+        if (target == null || !toWorld.getName().equals(portalRegistry.getWorldName(target))) {
+            return null;
         }
 
-        // Fill interior with nether portal blocks
-        for (int x = 1; x < width - 1; x++) {
-            for (int y = 1; y < height - 1; y++) {
-                Location loc = corner.clone();
-                if (orientation == BlockFace.SOUTH) {
-                    loc.add(x, y, 0);
-                } else {
-                    loc.add(0, y, x);
-                }
-                Block portalBlock = loc.getBlock();
-                portalBlock.setType(Material.NETHER_PORTAL);
-
-                // Set the axis orientation of the portal
-                if (portalBlock.getBlockData() instanceof org.bukkit.block.data.Orientable orientable) {
-                    if (orientation == BlockFace.SOUTH) {
-                        // Portal faces X-axis so the flat side aligns with the Z-axis frame
-                        orientable.setAxis(org.bukkit.Axis.X);
-                    } else {
-                        // Portal faces Z-axis so the flat side aligns with the X-axis frame
-                        orientable.setAxis(org.bukkit.Axis.Z);
-                    }
-                    portalBlock.setBlockData(orientable);
-                }
-            }
+        // Frames broken while their chunk was loaded are already gone from the registry,
+        // this catches the rest whenever the chunk happens to be loaded
+        Location destination = target.toLocation(toWorld);
+        if (toWorld.isChunkLoaded(target.getBlockX() >> 4, target.getBlockZ() >> 4)
+                && destination.getBlock().getType() != Material.NETHER_PORTAL) {
+            journal(WarpedJournal.Type.LINK_STALE, destination, target.getId(), null);
+            portalRegistry.unregister(target);
+            return null;
         }
+        return destination;
+    }
 
-        // Play sound
-        world.playSound(corner, Sound.BLOCK_PORTAL_TRIGGER, 1.0f, 1.0f);
+    /**
+     * Record the frame the player entered and the portal they arrived at as a linked pair
+     */
+    private void linkPortals(Location sourceFrame, Location destination) {
+        // Both are already registered unless this is their first use, either way keyed by frame center
+        WarpedPortal source = portalRegistry.register(sourceFrame.getWorld().getName(), sourceFrame);
+        WarpedPortal target = portalRegistry.register(destination.getWorld().getName(), destination);
+        portalRegistry.link(source, target);
     }
 
-    @EventHandler
-    public void onPlayerPortal(PlayerPortalEvent event) {
-        if (event.getCause() != PlayerTeleportEvent.TeleportCause.NETHER_PORTAL) {
-            return;
+    @EventHandler(ignoreCancelled = true)
+    public void onBlockBreak(BlockBreakEvent event) {
+        Material type = event.getBlock().getType();
+        if (type == Material.NETHER_PORTAL || type == Material.REINFORCED_DEEPSLATE) {
+            scheduleLinkCheck(event.getBlock());
         }
+    }
 
-        Block block = event.getFrom().getBlock();
-
-        // Check if portal frame is reinforced deepslate
-        if (isWarpedPortal(block)) {
-            event.setCancelled(true);
-
-            Player player = event.getPlayer();
-            World currentWorld = player.getWorld();
+    @EventHandler(ignoreCancelled = true)
+    public void onEntityExplode(EntityExplodeEvent event) {
+        scheduleLinkChecks(event.blockList());
+    }
 
-            // INSTANT teleportation - no scheduler delay
-            Location portalEntrance = event.getFrom();
+    @EventHandler(ignoreCancelled = true)
+    public void onBlockExplode(BlockExplodeEvent event) {
+        scheduleLinkChecks(event.blockList());
+    }
 
-            plugin.getLogger().info("=== INSTANT PORTAL TELEPORT ===");
-            plugin.getLogger().info("Player: " + player.getName());
-            plugin.getLogger().info("From World: " + currentWorld.getName());
-            plugin.getLogger().info("From Location: " + portalEntrance.toString());
+    private void scheduleLinkChecks(List<Block> blocks) {
+        for (Block block : blocks) {
+            Material type = block.getType();
+            if (type == Material.NETHER_PORTAL || type == Material.REINFORCED_DEEPSLATE) {
+                // One check covers the whole frame
+                scheduleLinkCheck(block);
+                return;
+            }
+        }
+    }
 
-            if (currentWorld.getName().equals("warped_dimension")) {
-                // Return to overworld
-                World overworld = Bukkit.getWorld("world");
-                if (overworld != null) {
-                    plugin.getLogger().info("Teleporting to OVERWORLD");
-                    Location destination = findOrCreateLinkedPortalInstant(portalEntrance, overworld);
-                    plugin.getLogger().info("Final Destination: " + destination.toString());
-                    player.teleport(destination);
-                    player.sendMessage("§aReturned to the Overworld!");
+    /**
+     * Drop registered portals near a broken frame block once the portal blocks have updated
+     */
+    private void scheduleLinkCheck(Block broken) {
+        World world = broken.getWorld();
+        double x = broken.getX() + 0.5;
+        double y = broken.getY();
+        double z = broken.getZ() + 0.5;
+        Bukkit.getScheduler().runTask(plugin, () -> {
+            portalTags.untagMissing(world, broken.getX(), broken.getY(), broken.getZ(), (int) SOURCE_FRAME_RADIUS * 2);
+            for (WarpedPortal portal : portalRegistry.findWithin(world.getName(), x, y, z, SOURCE_FRAME_RADIUS + 1)) {
+                if (!world.isChunkLoaded(portal.getBlockX() >> 4, portal.getBlockZ() >> 4)) {
+                    continue;
                 }
-            } else {
-                // Go to warped dimension
-                World warpedWorld = WarpedWorldManager.getOrCreateWarpedWorld(plugin);
-                if (warpedWorld != null) {
-                    plugin.getLogger().info("Teleporting to WARPED DIMENSION");
-                    Location destination = findOrCreateLinkedPortalInstant(portalEntrance, warpedWorld);
-                    plugin.getLogger().info("Final Destination: " + destination.toString());
-                    player.teleport(destination);
-                    player.sendMessage("§5Welcome to the Warped Dimension!");
+                if (world.getBlockAt(portal.getBlockX(), portal.getBlockY(), portal.getBlockZ()).getType() != Material.NETHER_PORTAL) {
+                    journal(WarpedJournal.Type.FRAME_BROKEN, portal.toLocation(world), portal.getId(), null);
+                    portalRegistry.unregister(portal);
                 }
             }
-            plugin.getLogger().info("=== END INSTANT PORTAL TELEPORT ===");
-        }
+        });
     }
 
-    private Location findOrCreateLinkedPortalInstant(Location fromPortal, World toWorld) {
+    private CompletableFuture<Location> findOrCreateLinkedPortalInstant(Location fromPortal, World toWorld,
+                                                                         WarpedPortalMetrics.Transition transition) {
         // ULTRA-FAST version for instant teleportation
         Location targetLoc = new Location(
             toWorld,
@@ -320,39 +379,35 @@ public class WarpedPortalListener implements Listener {
             fromPortal.getPitch()
         );
 
-        plugin.getLogger().info("--- INSTANT PORTAL SEARCH ---");
-        plugin.getLogger().info("Target: " + targetLoc.toString());
-
         // STEP 1: Registry check (instant)
         Location registryPortal = findPortalInRegistry(targetLoc, toWorld.getName());
         if (registryPortal != null) {
-            plugin.getLogger().info("✓ Registry hit: " + registryPortal.toString());
-            return registryPortal;
+            journal(WarpedJournal.Type.REGISTRY_HIT, registryPortal, 0, null);
+            transition.setPath(WarpedPortalMetrics.Path.REGISTRY);
+            return CompletableFuture.completedFuture(registryPortal);
         }
 
         // STEP 2: Ultra-fast targeted search (minimal chunk loading)
-        int chunkX = targetLoc.getBlockX() >> 4;
-        int chunkZ = targetLoc.getBlockZ() >> 4;
-
-        // Only ensure target chunk is loaded
-        if (!toWorld.isChunkLoaded(chunkX, chunkZ)) {
-            toWorld.loadChunk(chunkX, chunkZ);
-        }
-
-        // Very targeted search around exact coordinates
-        Location instantPortal = findNearbyWarpedPortalInstant(targetLoc, 5); // Only 5 block radius
-        if (instantPortal != null) {
-            plugin.getLogger().info("✓ Instant search hit: " + instantPortal.toString());
-            registerPortal(instantPortal, toWorld.getName());
-            return instantPortal;
-        }
+        // Load only the chunks the search reads, then a very targeted search around exact
+        // coordinates, only 5 blocks and +-2 levels
+        return loadChunks(targetLoc, 5, transition).thenCompose(ignored ->
+            portalSearch.findNearest(targetLoc, 5, 2, 1.0, transition)
+        ).thenCompose(instantPortal -> {
+            if (instantPortal != null) {
+                Location frame = getFrameCenter(instantPortal.getBlock());
+                journal(WarpedJournal.Type.INSTANT_HIT, frame, 0, null);
+                transition.setPath(WarpedPortalMetrics.Path.INSTANT);
+                registerPortal(frame, toWorld.getName());
+                return CompletableFuture.completedFuture(frame);
+            }
 
-        // STEP 3: If no instant hit, fall back to regular search (but still same tick)
-        plugin.getLogger().info("No instant hit, using fast search...");
-        return findOrCreateLinkedPortal(fromPortal, toWorld);
+            // STEP 3: If no instant hit, fall back to regular search
+            return findOrCreateLinkedPortal(fromPortal, toWorld, transition);
+        });
     }
 
-    private Location findOrCreateLinkedPortal(Location fromPortal, World toWorld) {
+    private CompletableFuture<Location> findOrCreateLinkedPortal(Location fromPortal, World toWorld,
+                                                                  WarpedPortalMetrics.Transition transition) {
         // Calculate corresponding coordinates (1:1 ratio, not like nether's 8:1)
         Location targetLoc = new Location(
             toWorld,
@@ -363,459 +418,172 @@ public class WarpedPortalListener implements Listener {
             fromPortal.getPitch()
         );
 
-        plugin.getLogger().info("--- FAST LINKED PORTAL SEARCH ---");
-        plugin.getLogger().info("From Portal: " + fromPortal.toString());
-        plugin.getLogger().info("Target Location: " + targetLoc.toString());
-        plugin.getLogger().info("Target World: " + toWorld.getName());
-
         // STEP 1: Check registry FIRST (fastest option)
-        plugin.getLogger().info("Step 1: Checking portal registry...");
         Location registryPortal = findPortalInRegistry(targetLoc, toWorld.getName());
         if (registryPortal != null) {
-            plugin.getLogger().info("✓ Found portal in registry: " + registryPortal.toString());
-            plugin.getLogger().info("--- END FAST PORTAL SEARCH (REGISTRY) ---");
-            return registryPortal;
-        }
-
-        // STEP 2: Quick targeted search (smaller radius, faster)
-        plugin.getLogger().info("Step 2: Quick search within 8 blocks...");
-        int chunkX = targetLoc.getBlockX() >> 4;
-        int chunkZ = targetLoc.getBlockZ() >> 4;
-
-        // Only load the target chunk for quick search
-        if (!toWorld.isChunkLoaded(chunkX, chunkZ)) {
-            toWorld.loadChunk(chunkX, chunkZ);
-            plugin.getLogger().info("Loaded target chunk for quick search: " + chunkX + ", " + chunkZ);
-        }
-
-        Location quickPortal = findNearbyWarpedPortal(targetLoc, 8);
-        if (quickPortal != null) {
-            plugin.getLogger().info("✓ Found portal in quick search: " + quickPortal.toString());
-            registerPortal(quickPortal, toWorld.getName());
-            plugin.getLogger().info("--- END FAST PORTAL SEARCH (QUICK) ---");
-            return quickPortal;
-        }
-
-        // STEP 3: Extensive search only if quick search fails (slower but thorough)
-        plugin.getLogger().info("Step 3: Extensive search within 20 blocks...");
-
-        // Load additional chunks for extensive search
-        for (int x = chunkX - 1; x <= chunkX + 1; x++) {
-            for (int z = chunkZ - 1; z <= chunkZ + 1; z++) {
-                if (!toWorld.isChunkLoaded(x, z)) {
-                    toWorld.loadChunk(x, z);
-                    plugin.getLogger().info("Loaded chunk for extensive search: " + x + ", " + z);
-                }
+            journal(WarpedJournal.Type.REGISTRY_HIT, registryPortal, 0, null);
+            transition.setPath(WarpedPortalMetrics.Path.REGISTRY);
+            return CompletableFuture.completedFuture(registryPortal);
+        }
+
+        // STEP 2: Quick targeted search within 8 blocks (smaller radius, faster)
+        return loadChunks(targetLoc, 8, transition).thenCompose(ignored ->
+            portalSearch.findNearest(targetLoc, 8, 8, 3.0, transition)
+        ).thenCompose(quickPortal -> {
+            if (quickPortal != null) {
+                Location frame = getFrameCenter(quickPortal.getBlock());
+                journal(WarpedJournal.Type.QUICK_HIT, frame, 0, null);
+                transition.setPath(WarpedPortalMetrics.Path.QUICK);
+                registerPortal(frame, toWorld.getName());
+                return CompletableFuture.completedFuture(frame);
             }
-        }
-
-        Location extensivePortal = findNearbyWarpedPortal(targetLoc, 20);
-        if (extensivePortal != null) {
-            plugin.getLogger().info("✓ Found portal in extensive search: " + extensivePortal.toString());
-            registerPortal(extensivePortal, toWorld.getName());
-            plugin.getLogger().info("--- END FAST PORTAL SEARCH (EXTENSIVE) ---");
-            return extensivePortal;
-        }
-
-        // No portal found, create one at a safe location
-        plugin.getLogger().info("✗ No existing portal found, creating new portal");
-        plugin.getLogger().info("--- END FAST PORTAL SEARCH (CREATING) ---");
-        return createLinkedPortal(targetLoc);
-    }
 
-    private Location findNearbyWarpedPortal(Location center, int radius) {
-        World world = center.getWorld();
-        if (world == null) return null;
-
-        int centerX = center.getBlockX();
-        int centerY = center.getBlockY();
-        int centerZ = center.getBlockZ();
-
-        // Adjust Y-range based on search radius (smaller radius = smaller Y-range for speed)
-        int yRange = (radius <= 8) ? 8 : 15;
-        int startY = Math.max(world.getMinHeight(), centerY - yRange);
-        int endY = Math.min(world.getMaxHeight() - 1, centerY + yRange);
-
-        // Track the best portal found (closest to center)
-        Location bestPortal = null;
-        double bestDistance = Double.MAX_VALUE;
-        int portalsFound = 0;
-        int validPortals = 0;
-
-        // Optimize search: check exact target Y first, then spiral outward
-        int[] yOffsets = new int[yRange + 1];
-        yOffsets[0] = 0; // exact center Y
-        for (int i = 1; i <= yRange; i++) {
-            yOffsets[i] = i;
-        }
-
-        // Search for existing portals
-        for (int x = centerX - radius; x <= centerX + radius; x++) {
-            for (int z = centerZ - radius; z <= centerZ + radius; z++) {
-                // Check Y levels in order of likelihood (exact first, then close, then far)
-                for (int yOffset : yOffsets) {
-                    for (int ySign = -1; ySign <= 1; ySign += 2) {
-                        int y = centerY + (yOffset * ySign);
-                        if (y < startY || y > endY) continue;
-
-                        // Skip if chunk not loaded (for quick searches)
-                        if (radius <= 8 && !world.isChunkLoaded(x >> 4, z >> 4)) {
-                            continue;
-                        }
-
-                        Location loc = new Location(world, x, y, z);
-                        Block block = loc.getBlock();
-
-                        if (block.getType() == Material.NETHER_PORTAL) {
-                            portalsFound++;
-
-                            // Found a portal block, check if it has reinforced deepslate nearby
-                            if (hasReinforcedDeepslateNearby(block)) {
-                                validPortals++;
-
-                                // Calculate distance from center
-                                double distance = Math.sqrt(
-                                    Math.pow(x - centerX, 2) +
-                                    Math.pow(z - centerZ, 2) +
-                                    Math.pow((y - centerY) / 3.0, 2) // Weight Y distance less
-                                );
-
-                                if (distance < bestDistance) {
-                                    bestDistance = distance;
-                                    bestPortal = loc.clone().add(0.5, 0, 0.5);
-                                    if (radius <= 8) { // Only log for quick searches
-                                        plugin.getLogger().info("Quick search found portal at " + loc.toString() + ", distance: " + distance);
-                                    }
-                                }
-                            }
-                        }
-                    }
+            // STEP 3: Extensive search within 20 blocks only if quick search fails (slower but thorough)
+
+            // Load the additional chunks the extensive search reads
+            return loadChunks(targetLoc, 20, transition).thenCompose(ignored ->
+                portalSearch.findNearest(targetLoc, 20, 15, 3.0, transition)
+            ).thenCompose(extensivePortal -> {
+                if (extensivePortal != null) {
+                    Location frame = getFrameCenter(extensivePortal.getBlock());
+                    journal(WarpedJournal.Type.EXTENSIVE_HIT, frame, 0, null);
+                    transition.setPath(WarpedPortalMetrics.Path.EXTENSIVE);
+                    registerPortal(frame, toWorld.getName());
+                    return CompletableFuture.completedFuture(frame);
                 }
-            }
-        }
 
-        if (radius <= 8) { // Only log summary for quick searches
-            plugin.getLogger().info("Quick portal search complete: " + portalsFound + " total portals, " + validPortals + " valid portals");
-        }
-
-        if (bestPortal != null && radius <= 8) {
-            plugin.getLogger().info("✓ Quick search found best portal at distance " + bestDistance);
-        }
-
-        return bestPortal;
+                // No portal found, create one at a safe location
+                transition.setPath(WarpedPortalMetrics.Path.CREATED);
+                return createLinkedPortal(targetLoc);
+            });
+        });
     }
 
-    private Location findNearbyWarpedPortalInstant(Location center, int radius) {
-        // ULTRA-FAST version for instant teleportation - minimal radius, optimized search
+    /**
+     * Load the chunks a portal search of the given block radius reads, without blocking the
+     * tick. findNearest skips unloaded chunks, so this covers the same chunks it does, one
+     * block beyond the radius. The future completes on the main thread once they are all
+     * loaded, at once if they already are.
+     */
+    private CompletableFuture<Void> loadChunks(Location center, int radius, WarpedPortalMetrics.Transition transition) {
         World world = center.getWorld();
-        if (world == null) return null;
-
         int centerX = center.getBlockX();
-        int centerY = center.getBlockY();
         int centerZ = center.getBlockZ();
-
-        // Only search exact target Y level first, then ±1, then ±2
-        int[] yChecks = {0, 1, -1, 2, -2};
-
-        Location bestPortal = null;
-        double bestDistanceSquared = Double.MAX_VALUE;
-
-        // Very tight search around target coordinates
-        for (int x = centerX - radius; x <= centerX + radius; x++) {
-            for (int z = centerZ - radius; z <= centerZ + radius; z++) {
-                // Check Y levels in order of probability
-                for (int yOffset : yChecks) {
-                    int y = centerY + yOffset;
-                    if (y < world.getMinHeight() || y > world.getMaxHeight() - 1) continue;
-
-                    Location loc = new Location(world, x, y, z);
-                    Block block = loc.getBlock();
-
-                    if (block.getType() == Material.NETHER_PORTAL) {
-                        // Found a portal block, check if it has reinforced deepslate nearby
-                        if (hasReinforcedDeepslateNearby(block)) {
-                            // Calculate squared distance (no expensive sqrt)
-                            double distanceSquared = (x - centerX) * (x - centerX) +
-                                                   (z - centerZ) * (z - centerZ) +
-                                                   yOffset * yOffset;
-
-                            if (distanceSquared < bestDistanceSquared) {
-                                bestDistanceSquared = distanceSquared;
-                                bestPortal = loc.clone().add(0.5, 0, 0.5);
-                            }
-                        }
-                    }
+        List<CompletableFuture<Chunk>> loads = new ArrayList<>();
+        for (int x = (centerX - radius - 1) >> 4; x <= (centerX + radius + 1) >> 4; x++) {
+            for (int z = (centerZ - radius - 1) >> 4; z <= (centerZ + radius + 1) >> 4; z++) {
+                if (!world.isChunkLoaded(x, z)) {
+                    // Paper completes chunk futures on the main thread
+                    loads.add(world.getChunkAtAsync(x, z));
+                    WarpedJournal.record(WarpedJournal.Type.CHUNK_LOADED, world.getName(), x << 4, 0, z << 4, 0, null);
+                    transition.addChunksLoaded(1);
                 }
             }
         }
-
-        return bestPortal;
+        return CompletableFuture.allOf(loads.toArray(new CompletableFuture[0]));
     }
 
-    private Location findPortalInRegistry(Location targetLoc, String worldName) {
-        List<Location> portals = portalRegistry.get(worldName);
-        if (portals == null || portals.isEmpty()) {
-            return null; // Fast exit for empty registry
-        }
-
-        // Ultra-fast: find closest portal using squared distance (no sqrt)
-        Location closest = null;
-        double closestDistanceSquared = Double.MAX_VALUE;
-        double thresholdSquared = 25 * 25; // 25 block threshold squared
-
-        for (Location portal : portals) {
-            double dx = portal.getX() - targetLoc.getX();
-            double dy = (portal.getY() - targetLoc.getY()) / 3.0;
-            double dz = portal.getZ() - targetLoc.getZ();
-            double distanceSquared = dx*dx + dy*dy + dz*dz;
-
-            if (distanceSquared < closestDistanceSquared && distanceSquared <= thresholdSquared) {
-                closestDistanceSquared = distanceSquared;
-                closest = portal;
-            }
-        }
-
-        return closest;
+    public WarpedPortalKeepAlive getKeepAlive() {
+        return keepAlive;
     }
 
-    private void registerPortal(Location portalLocation, String worldName) {
-        List<Location> portals = portalRegistry.computeIfAbsent(worldName, k -> new ArrayList<>());
-
-        plugin.getLogger().info("Registering portal for world '" + worldName + "': " + portalLocation.toString());
-        plugin.getLogger().info("Current portals in registry: " + portals.size());
-
-        // Remove any existing portals that are too close (within 5 blocks)
-        final int[] removedCount = {0};
-        portals.removeIf(existing -> {
-            double distance = Math.sqrt(
-                Math.pow(existing.getX() - portalLocation.getX(), 2) +
-                Math.pow(existing.getZ() - portalLocation.getZ(), 2) +
-                Math.pow((existing.getY() - portalLocation.getY()) / 3.0, 2)
-            );
-            if (distance <= 5) {
-                plugin.getLogger().info("Removing duplicate portal at distance " + distance + ": " + existing.toString());
-                removedCount[0]++;
-                return true;
+    /**
+     * Get a copy of the portals registered in a world
+     */
+    public List<Location> getRegisteredPortals(String worldName) {
+        List<Location> locations = new ArrayList<>();
+        World world = plugin.getServer().getWorld(worldName);
+        if (world != null) {
+            for (WarpedPortal portal : portalRegistry.getPortals(worldName)) {
+                locations.add(portal.toLocation(world));
             }
-            return false;
-        });
-
-        if (removedCount[0] > 0) {
-            plugin.getLogger().info("Removed " + removedCount[0] + " duplicate portals");
         }
-
-        // Add the new portal
-        portals.add(portalLocation.clone());
-        plugin.getLogger().info("✓ Portal registered. Total portals for '" + worldName + "': " + portals.size());
+        return locations;
     }
 
-    private boolean hasReinforcedDeepslateNearby(Block portalBlock) {
-        // Check nearby blocks for reinforced deepslate (portal frame)
-        // Ultra-optimized: check most likely positions first, early exit
+    private Location findPortalInRegistry(Location targetLoc, String worldName) {
+        // Only the chunks within the 25 block threshold are checked
+        WarpedPortal closest = portalRegistry.findNearest(worldName, targetLoc.getX(), targetLoc.getY(), targetLoc.getZ(), 25);
+        return closest == null ? null : closest.toLocation(targetLoc.getWorld());
+    }
 
-        // Check immediate adjacent blocks (most common portal frame positions)
-        for (int x = -1; x <= 1; x += 2) { // Only check -1 and 1 (not 0)
-            for (int z = -1; z <= 1; z += 2) { // Only check -1 and 1 (not 0)
-                Block nearby = portalBlock.getRelative(x, 0, z);
-                if (nearby.getType() == Material.REINFORCED_DEEPSLATE) {
-                    return true;
-                }
+    /**
+     * The center of the frame around a portal block, which is what portals are registered and
+     * linked by. Falls back to the block itself if it is not in a whole frame, or the frame
+     * could reach into a chunk that is not loaded.
+     */
+    private Location getFrameCenter(Block portalBlock) {
+        World world = portalBlock.getWorld();
+        int reach = WarpedPortalShape.MAX_SIZE;
+        boolean loaded = true;
+        for (int chunkX = (portalBlock.getX() - reach) >> 4; loaded && chunkX <= (portalBlock.getX() + reach) >> 4; chunkX++) {
+            for (int chunkZ = (portalBlock.getZ() - reach) >> 4; loaded && chunkZ <= (portalBlock.getZ() + reach) >> 4; chunkZ++) {
+                loaded = world.isChunkLoaded(chunkX, chunkZ);
             }
         }
 
-        // Check above and below
-        for (int y = -1; y <= 1; y += 2) { // Only check -1 and 1
-            Block nearby = portalBlock.getRelative(0, y, 0);
-            if (nearby.getType() == Material.REINFORCED_DEEPSLATE) {
-                return true;
-            }
+        WarpedPortalShape shape = loaded ? WarpedPortalShape.fromPortalBlock(portalBlock) : null;
+        if (shape != null) {
+            return shape.getCenter();
         }
-
-        // If not found in immediate area, check corners and extended range
-        for (int x = -1; x <= 1; x++) {
-            for (int y = -1; y <= 1; y++) {
-                for (int z = -1; z <= 1; z++) {
-                    if (x == 0 && y == 0 && z == 0) continue; // Skip center
-                    Block nearby = portalBlock.getRelative(x, y, z);
-                    if (nearby.getType() == Material.REINFORCED_DEEPSLATE) {
-                        return true;
-                    }
-                }
-            }
-        }
-
-        return false;
+        return new Location(world, portalBlock.getX() + 0.5, portalBlock.getY(), portalBlock.getZ() + 0.5);
     }
 
-    private Location createLinkedPortal(Location targetLoc) {
-        World world = targetLoc.getWorld();
-        if (world == null) return targetLoc;
-
-        // Find a safe location to build the portal
-        Location buildLoc = findSafeBuildLocation(targetLoc);
+    private WarpedPortal registerPortal(Location portalLocation, String worldName) {
+        return portalRegistry.register(worldName, portalLocation);
+    }
 
-        // Build a standard 4x5 portal frame
-        int width = 4;
-        int height = 5;
+    private CompletableFuture<Location> createLinkedPortal(Location targetLoc) {
+        // The site is picked from chunk snapshots off the main thread
+        return portalSearch.findBuildSite(targetLoc).thenApply(this::buildLinkedPortal);
+    }
 
-        Location corner = buildLoc.clone();
+    private Location buildLinkedPortal(Location buildLoc) {
+        World world = buildLoc.getWorld();
+        int width = WarpedPortalSearch.BUILD_WIDTH;
+        int height = WarpedPortalSearch.BUILD_HEIGHT;
 
-        // Build the frame
+        // Place the whole frame without physics, so portal blocks are not broken before the
+        // frame around them is complete and neighbours are not updated once per block
+        BlockData portalData = getPortalData(Axis.X);
+        List<Block> portalBlocks = new ArrayList<>();
         for (int x = 0; x < width; x++) {
             for (int y = 0; y < height; y++) {
-                Location loc = corner.clone().add(x, y, 0);
-
-                // Bottom and top edges
-                if (y == 0 || y == height - 1) {
-                    loc.getBlock().setType(Material.REINFORCED_DEEPSLATE);
-                }
-                // Left and right edges
-                else if (x == 0 || x == width - 1) {
-                    loc.getBlock().setType(Material.REINFORCED_DEEPSLATE);
-                }
-                // Interior - portal blocks
-                else {
-                    Block portalBlock = loc.getBlock();
-                    portalBlock.setType(Material.NETHER_PORTAL);
-
-                    // Set axis orientation (X axis for portals facing the Z direction)
-                    if (portalBlock.getBlockData() instanceof org.bukkit.block.data.Orientable orientable) {
-                        orientable.setAxis(org.bukkit.Axis.X);
-                        portalBlock.setBlockData(orientable);
-                    }
-
-                    // Ensure the portal block is properly updated
-                    portalBlock.getState().update(true, false);
+                Block block = world.getBlockAt(buildLoc.getBlockX() + x, buildLoc.getBlockY() + y, buildLoc.getBlockZ());
+                if (y == 0 || y == height - 1 || x == 0 || x == width - 1) {
+                    block.setBlockData(frameData, false);
+                } else {
+                    block.setBlockData(portalData, false);
+                    portalBlocks.add(block);
                 }
             }
         }
+        portalTags.tag(world, portalBlocks);
 
-        // Create portal particles and effects for visual feedback
+        // Create portal effects for visual feedback
         world.playSound(buildLoc, Sound.BLOCK_PORTAL_TRIGGER, 1.0f, 1.0f);
 
-        // Schedule a task to ensure portal blocks are properly formed
-        Bukkit.getScheduler().runTaskLater(plugin, () -> {
-            // Double-check portal blocks are properly set
-            for (int x = 1; x < width - 1; x++) {
-                for (int y = 1; y < height - 1; y++) {
-                    Location loc = corner.clone().add(x, y, 0);
-                    Block portalBlock = loc.getBlock();
-                    if (portalBlock.getType() == Material.NETHER_PORTAL) {
-                        if (portalBlock.getBlockData() instanceof org.bukkit.block.data.Orientable orientable) {
-                            orientable.setAxis(org.bukkit.Axis.X);
-                            portalBlock.setBlockData(orientable);
-                        }
-                        portalBlock.getState().update(true, false);
-                    }
-                }
-            }
-            world.playSound(buildLoc, Sound.BLOCK_PORTAL_AMBIENT, 0.5f, 1.0f);
-        }, 1L);
-
         // Register the new portal
-        Location portalCenter = corner.clone().add(width / 2.0, 1, 0.5);
-        registerPortal(portalCenter, world.getName());
+        Location portalCenter = buildLoc.clone().add(width / 2.0, 1, 0.5);
+        WarpedPortal portal = registerPortal(portalCenter, world.getName());
+        journal(WarpedJournal.Type.PORTAL_BUILT, portalCenter, portal.getId(), null);
 
         // Return the center of the portal for teleportation
         return portalCenter;
     }
 
-    private Location findSafeBuildLocation(Location target) {
-        World world = target.getWorld();
-        if (world == null) return target;
-
-        int x = target.getBlockX();
-        int z = target.getBlockZ();
-
-        // Try to find solid ground near the target Y level
-        for (int yOffset = 0; yOffset <= 20; yOffset++) {
-            for (int sign = -1; sign <= 1; sign += 2) {
-                int y = target.getBlockY() + (yOffset * sign);
-
-                if (y < world.getMinHeight() || y > world.getMaxHeight() - 10) {
-                    continue;
-                }
-
-                Location testLoc = new Location(world, x, y, z);
-
-                // Check if there's solid ground and enough space above
-                if (isSafeForPortal(testLoc)) {
-                    return testLoc;
-                }
-            }
-        }
-
-        // If no safe location found, try to find a safe spot above the highest block
-        int highestY = world.getHighestBlockYAt(x, z);
-
-        // Check if the area above the highest block is safe (no water)
-        for (int y = highestY + 1; y < Math.min(world.getMaxHeight() - 5, highestY + 15); y++) {
-            Location testLoc = new Location(world, x, y, z);
-            if (isSafeForPortal(testLoc)) {
-                return testLoc;
-            }
-        }
-
-        // If still no safe location, try to find ground above sea level that's not water
-        for (int y = Math.max(63, world.getMinHeight() + 10); y < world.getMaxHeight() - 5; y++) {
-            Location testLoc = new Location(world, x, y, z);
-
-            // Check if there's solid ground below and the area is clear
-            Material below = testLoc.clone().subtract(0, 1, 0).getBlock().getType();
-            if (below.isSolid() && isSafeForPortal(testLoc)) {
-                return testLoc;
-            }
-        }
-
-        // Last resort: return a safe location above sea level
-        return new Location(world, x, Math.max(65, highestY + 2), z);
-    }
-
-    private boolean isSafeForPortal(Location loc) {
-        World world = loc.getWorld();
-        if (world == null) return false;
-
-        // Check if there's solid ground below (not water or lava)
-        Material below = loc.clone().subtract(0, 1, 0).getBlock().getType();
-        if (!below.isSolid() || below == Material.WATER || below == Material.LAVA) {
-            return false;
-        }
-
-        // Check if the ground itself is not water or lava
-        Material ground = loc.getBlock().getType();
-        if (ground == Material.WATER || ground == Material.LAVA) {
-            return false;
-        }
-
-        // Check if there's enough vertical space (5 blocks high, 4 blocks wide)
-        for (int x = 0; x < 4; x++) {
-            for (int y = 0; y < 5; y++) {
-                Location checkLoc = loc.clone().add(x, y, 0);
-                Material mat = checkLoc.getBlock().getType();
-
-                // Only allow air and certain replaceable blocks, no water or lava
-                if (mat != Material.AIR && !mat.name().contains("GRASS") &&
-                    !mat.name().contains("ROOTS") && !mat.name().contains("VINE")) {
-                    return false;
-                }
-            }
-        }
-
-        return true;
+    private static void journal(WarpedJournal.Type type, Location location, long value, String subject) {
+        WarpedJournal.record(type, location.getWorld().getName(),
+            location.getBlockX(), location.getBlockY(), location.getBlockZ(), value, subject);
     }
 
-    private boolean isWarpedPortal(Block block) {
-        // Check if nearby blocks contain reinforced deepslate (portal frame)
-        for (int x = -4; x <= 4; x++) {
-            for (int y = -4; y <= 4; y++) {
-                for (int z = -4; z <= 4; z++) {
-                    Block nearby = block.getRelative(x, y, z);
-                    if (nearby.getType() == Material.REINFORCED_DEEPSLATE) {
-                        return true;
-                    }
-                }
+    private BlockData getPortalData(Axis axis) {
+        return portalData.computeIfAbsent(axis, key -> {
+            BlockData data = Bukkit.createBlockData(Material.NETHER_PORTAL);
+            if (data instanceof Orientable orientable) {
+                orientable.setAxis(key);
             }
-        }
-        return false;
+            return data;
+        });
     }
 }
@@ -0,0 +1,157 @@
+package me.swissh.warped_dimension;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcome and cost of portal teleports per destination world: how the destination was
+ * resolved, how many chunks had to be loaded, how many blocks the searches scanned and how
+ * long the teleport took from entering the portal to arriving.
+ */
+public class WarpedPortalMetrics {
+
+    /**
+     * The lookup that resolved a destination, in the order they are tried
+     */
+    public enum Path {
+        LINKED,
+        REGISTRY,
+        INSTANT,
+        QUICK,
+        EXTENSIVE,
+        CREATED
+    }
+
+    private static final Map<String, WorldStats> WORLDS = new ConcurrentHashMap<>();
+
+    /**
+     * Start tracking a teleport. The returned transition is filled in on the main thread.
+     */
+    public static Transition begin() {
+        return new Transition(System.nanoTime());
+    }
+
+    /**
+     * Record a finished teleport into a world
+     */
+    public static void record(String worldName, Transition transition) {
+        WORLDS.computeIfAbsent(worldName, WorldStats::new).record(transition, System.nanoTime() - transition.startNanos);
+    }
+
+    /**
+     * All worlds sorted by name
+     */
+    public static List<WorldStats> getWorlds() {
+        List<WorldStats> worlds = new ArrayList<>(WORLDS.values());
+        worlds.sort(Comparator.comparing(WorldStats::getName));
+        return worlds;
+    }
+
+    public static void reset() {
+        WORLDS.clear();
+    }
+
+    public static class Transition {
+        private final long startNanos;
+        private Path path = Path.LINKED;
+        private int chunksLoaded;
+        private long blocksScanned;
+
+        private Transition(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        public void setPath(Path path) {
+            this.path = path;
+        }
+
+        public void addChunksLoaded(int chunks) {
+            chunksLoaded += chunks;
+        }
+
+        public void addBlocksScanned(long blocks) {
+            blocksScanned += blocks;
+        }
+    }
+
+    public static class WorldStats {
+        private final String name;
+        private final LongAdder[] paths = new LongAdder[Path.values().length];
+        private final Distribution latencyNanos = new Distribution();
+        private final Distribution chunksLoaded = new Distribution();
+        private final Distribution blocksScanned = new Distribution();
+
+        private WorldStats(String name) {
+            this.name = name;
+            for (int i = 0; i < paths.length; i++) {
+                paths[i] = new LongAdder();
+            }
+        }
+
+        private void record(Transition transition, long nanos) {
+            paths[transition.path.ordinal()].increment();
+            latencyNanos.record(nanos);
+            chunksLoaded.record(transition.chunksLoaded);
+            blocksScanned.record(transition.blocksScanned);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCount(Path path) {
+            return paths[path.ordinal()].sum();
+        }
+
+        public Distribution getLatencyNanos() {
+            return latencyNanos;
+        }
+
+        public Distribution getChunksLoaded() {
+            return chunksLoaded;
+        }
+
+        public Distribution getBlocksScanned() {
+            return blocksScanned;
+        }
+    }
+
+    public static class Distribution {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+        private final WarpedHistogram histogram = new WarpedHistogram();
+
+        private void record(long value) {
+            count.increment();
+            total.add(value);
+            max.accumulate(value);
+            histogram.record(value);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public double getAverage() {
+            long n = getCount();
+            return n == 0 ? 0 : total.sum() / (double) n;
+        }
+
+        public long getMax() {
+            return max.get();
+        }
+
+        /**
+         * Percentile (0-100), never above the recorded max
+         */
+        public long getPercentile(double percentile) {
+            return Math.min(histogram.getPercentile(percentile), getMax());
+        }
+    }
+}
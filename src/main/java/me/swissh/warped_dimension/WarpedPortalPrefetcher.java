@@ -0,0 +1,68 @@
+package me.swissh.warped_dimension;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+/**
+ * Starts loading the destination of a warped portal when a player walks up to it, so the
+ * teleport finds its chunks ready. Prefetched chunks are held by the keep-alive tickets and
+ * released when they are not used within the configured time.
+ */
+public class WarpedPortalPrefetcher {
+
+    private static final long UPDATE_INTERVAL = 10L; // Ticks
+    private static final double APPROACH_RADIUS = 6; // Blocks from the registered portal center
+    private static final double REGISTRY_RADIUS = 25; // Same threshold as the teleport's registry lookup
+
+    private final Warped_dimension plugin;
+    private final WarpedPortalRegistry portalRegistry;
+    private final WarpedPortalKeepAlive keepAlive;
+    private final long holdMillis;
+
+    public WarpedPortalPrefetcher(Warped_dimension plugin, WarpedPortalRegistry portalRegistry, WarpedPortalKeepAlive keepAlive) {
+        this.plugin = plugin;
+        this.portalRegistry = portalRegistry;
+        this.keepAlive = keepAlive;
+        this.holdMillis = plugin.getConfig().getLong("portals.prefetch-seconds", 30L) * 1000L;
+
+        plugin.getServer().getScheduler().runTaskTimer(plugin, this::update, UPDATE_INTERVAL, UPDATE_INTERVAL);
+    }
+
+    private void update() {
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            World world = player.getWorld();
+            Location location = player.getLocation();
+            WarpedPortal source = portalRegistry.findNearest(world.getName(),
+                location.getX(), location.getY(), location.getZ(), APPROACH_RADIUS);
+            if (source == null) {
+                continue;
+            }
+
+            // Only prefetch into worlds that are already loaded
+            World toWorld = Bukkit.getWorld(world.getName().equals("warped_dimension") ? "world" : "warped_dimension");
+            if (toWorld == null) {
+                continue;
+            }
+            prefetch(source, toWorld);
+        }
+    }
+
+    /**
+     * Hold the chunks the teleport from a portal will need, following the same lookups it does
+     */
+    private void prefetch(WarpedPortal source, World toWorld) {
+        WarpedPortal target = portalRegistry.getLinked(source);
+        if (target == null || !toWorld.getName().equals(portalRegistry.getWorldName(target))) {
+            target = portalRegistry.findNearest(toWorld.getName(), source.getX(), source.getY(), source.getZ(), REGISTRY_RADIUS);
+        }
+
+        if (target != null) {
+            keepAlive.prefetch(toWorld, target.getBlockX() >> 4, target.getBlockZ() >> 4, 0, holdMillis);
+        } else {
+            // A search or a new portal around the same coordinates
+            keepAlive.prefetch(toWorld, source.getBlockX() >> 4, source.getBlockZ() >> 4, 1, holdMillis);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package me.swissh.warped_dimension;
+
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Registered portals of every world with their links, backed by the WarpedPortalStore.
+ * Each world has a spatial index for nearest-portal queries, and an id table resolves a
+ * portal's linked partner in one lookup. Main thread only.
+ */
+public class WarpedPortalRegistry {
+
+    private final Logger logger;
+    private final WarpedPortalStore store;
+    private final Map<String, WarpedPortalIndex> indexes = new HashMap<>();
+    private final Map<Integer, WarpedPortal> portalsById = new HashMap<>();
+    private final Map<Integer, String> worldsById = new HashMap<>();
+
+    public WarpedPortalRegistry(Warped_dimension plugin) {
+        this.logger = plugin.getLogger();
+        this.store = new WarpedPortalStore(plugin.getDataFolder(), logger);
+    }
+
+    /**
+     * Restore the portals saved by earlier runs
+     */
+    public void load() {
+        for (Map.Entry<String, List<WarpedPortal>> entry : store.load().entrySet()) {
+            for (WarpedPortal portal : entry.getValue()) {
+                add(entry.getKey(), portal);
+            }
+        }
+        logger.info("Loaded " + portalsById.size() + " registered portals");
+    }
+
+    /**
+     * Compact the store if its log has grown, called periodically
+     */
+    public void compactIfNeeded() {
+        if (store.shouldCompact(portalsById.size())) {
+            store.compact(copyPortals());
+        }
+    }
+
+    /**
+     * Save and stop the store's IO thread, called on plugin disable
+     */
+    public void shutdown() {
+        compactIfNeeded();
+        store.close();
+    }
+
+    public int size() {
+        return portalsById.size();
+    }
+
+    public List<String> getWorldNames() {
+        return new ArrayList<>(indexes.keySet());
+    }
+
+    public List<WarpedPortal> getPortals(String worldName) {
+        WarpedPortalIndex index = indexes.get(worldName);
+        return index == null ? new ArrayList<>() : index.getPortals();
+    }
+
+    public WarpedPortal findNearest(String worldName, double x, double y, double z, double radius) {
+        WarpedPortalIndex index = indexes.get(worldName);
+        return index == null ? null : index.findNearest(x, y, z, radius);
+    }
+
+    /**
+     * The portal registered at exactly this location, such as a frame center, or null
+     */
+    public WarpedPortal getAt(String worldName, Location location) {
+        WarpedPortalIndex index = indexes.get(worldName);
+        if (index == null) {
+            return null;
+        }
+        WarpedPortal key = WarpedPortal.fromLocation(0, location);
+        return index.get(key.getPosition(), key.getOffsets());
+    }
+
+    public List<WarpedPortal> findWithin(String worldName, double x, double y, double z, double radius) {
+        WarpedPortalIndex index = indexes.get(worldName);
+        return index == null ? new ArrayList<>() : index.findWithin(x, y, z, radius);
+    }
+
+    /**
+     * Register a portal, or return the one already registered at exactly this location with
+     * its link. Portals are keyed by their frame center, so frames side by side stay apart;
+     * only nearby portals whose block is loaded and no longer a portal are dropped.
+     */
+    public WarpedPortal register(String worldName, Location portalLocation) {
+        WarpedPortalIndex index = indexes.computeIfAbsent(worldName, k -> new WarpedPortalIndex());
+        WarpedPortal key = WarpedPortal.fromLocation(0, portalLocation);
+        WarpedPortal existing = index.get(key.getPosition(), key.getOffsets());
+        if (existing != null) {
+            return existing;
+        }
+
+        // Clean up stale portals around it, such as ones registered before frames were keyed by center
+        int removed = 0;
+        World world = portalLocation.getWorld();
+        for (WarpedPortal nearby : index.findWithin(key.getX(), key.getY(), key.getZ(), 5)) {
+            if (world != null && world.isChunkLoaded(nearby.getBlockX() >> 4, nearby.getBlockZ() >> 4)
+                    && world.getBlockAt(nearby.getBlockX(), nearby.getBlockY(), nearby.getBlockZ()).getType() != Material.NETHER_PORTAL) {
+                unregister(nearby);
+                removed++;
+            }
+        }
+
+        // Add the new portal
+        WarpedPortal portal = new WarpedPortal(store.nextId(), key.getPosition(), key.getOffsets(), 0);
+        add(worldName, portal);
+        store.put(worldName, portal);
+        WarpedJournal.record(WarpedJournal.Type.PORTAL_REGISTERED, worldName,
+            portal.getBlockX(), portal.getBlockY(), portal.getBlockZ(), removed, null);
+        return portal;
+    }
+
+    /**
+     * Remove a portal and clear its partner's link
+     */
+    public void unregister(WarpedPortal portal) {
+        String worldName = worldsById.remove(portal.getId());
+        if (worldName == null) {
+            return;
+        }
+        portalsById.remove(portal.getId());
+        indexes.get(worldName).remove(portal);
+        store.remove(worldName, portal);
+
+        WarpedPortal partner = portalsById.get(portal.getLinkId());
+        if (partner != null && partner.getLinkId() == portal.getId()) {
+            partner.setLinkId(0);
+            store.put(worldsById.get(partner.getId()), partner);
+        }
+    }
+
+    /**
+     * Link two portals to each other, replacing any links they had
+     */
+    public void link(WarpedPortal first, WarpedPortal second) {
+        if (first.getLinkId() == second.getId() && second.getLinkId() == first.getId()) {
+            return;
+        }
+        unlink(first);
+        unlink(second);
+        first.setLinkId(second.getId());
+        second.setLinkId(first.getId());
+        store.put(worldsById.get(first.getId()), first);
+        store.put(worldsById.get(second.getId()), second);
+    }
+
+    /**
+     * Get the portal linked to this one, or null
+     */
+    public WarpedPortal getLinked(WarpedPortal portal) {
+        if (portal.getLinkId() == 0) {
+            return null;
+        }
+        WarpedPortal partner = portalsById.get(portal.getLinkId());
+        return partner != null && partner.getLinkId() == portal.getId() ? partner : null;
+    }
+
+    public String getWorldName(WarpedPortal portal) {
+        return worldsById.get(portal.getId());
+    }
+
+    private void unlink(WarpedPortal portal) {
+        WarpedPortal partner = getLinked(portal);
+        if (partner != null) {
+            partner.setLinkId(0);
+            store.put(worldsById.get(partner.getId()), partner);
+        }
+        portal.setLinkId(0);
+    }
+
+    private void add(String worldName, WarpedPortal portal) {
+        indexes.computeIfAbsent(worldName, k -> new WarpedPortalIndex()).add(portal);
+        portalsById.put(portal.getId(), portal);
+        worldsById.put(portal.getId(), worldName);
+    }
+
+    private Map<String, List<WarpedPortal>> copyPortals() {
+        Map<String, List<WarpedPortal>> copy = new HashMap<>();
+        for (Map.Entry<String, WarpedPortalIndex> entry : indexes.entrySet()) {
+            copy.put(entry.getKey(), entry.getValue().getPortals());
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,272 @@
+package me.swissh.warped_dimension;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Searches for warped portal blocks near a location without blocking the tick. Snapshots of
+ * the loaded chunks around the location are taken on the main thread, scanned on a small
+ * worker pool, and the closest portal is handed back on the main thread. Sites for new
+ * portals are picked the same way, after loading the chunks the frame goes in.
+ */
+public class WarpedPortalSearch {
+
+    // Frame size of portals built at destinations
+    public static final int BUILD_WIDTH = 4;
+    public static final int BUILD_HEIGHT = 5;
+
+    private final ExecutorService workers;
+    private final Executor mainThread;
+
+    public WarpedPortalSearch(Warped_dimension plugin) {
+        this.workers = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "Warped Portal Search");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.mainThread = runnable -> Bukkit.getScheduler().runTask(plugin, runnable);
+    }
+
+    /**
+     * Find the portal block closest to a center within a horizontal radius and a Y range.
+     * Chunks that are not loaded are skipped. Y distance is divided by yDivisor before
+     * comparing, so larger values prefer portals at other heights less strongly.
+     * Must be called on the main thread; the future completes on the main thread, after
+     * adding the number of blocks scanned to the transition if there is one.
+     */
+    public CompletableFuture<Location> findNearest(Location center, int radius, int yRange, double yDivisor,
+                                                   WarpedPortalMetrics.Transition transition) {
+        World world = center.getWorld();
+        int centerX = center.getBlockX();
+        int centerY = center.getBlockY();
+        int centerZ = center.getBlockZ();
+        int minY = Math.max(world.getMinHeight(), centerY - yRange);
+        int maxY = Math.min(world.getMaxHeight() - 1, centerY + yRange);
+
+        // One block beyond the radius so frame blocks on the edge can be checked
+        Map<Long, ChunkSnapshot> snapshots = new HashMap<>();
+        for (int chunkX = (centerX - radius - 1) >> 4; chunkX <= (centerX + radius + 1) >> 4; chunkX++) {
+            for (int chunkZ = (centerZ - radius - 1) >> 4; chunkZ <= (centerZ + radius + 1) >> 4; chunkZ++) {
+                capture(world, snapshots, chunkX, chunkZ);
+            }
+        }
+
+        int worldMinY = world.getMinHeight();
+        int worldMaxY = world.getMaxHeight() - 1;
+        return CompletableFuture.supplyAsync(() -> {
+            SnapshotView view = new SnapshotView(snapshots, worldMinY, worldMaxY);
+            int bestX = 0, bestY = 0, bestZ = 0;
+            double bestDistance = Double.MAX_VALUE;
+            boolean found = false;
+            long scanned = 0;
+
+            for (int x = centerX - radius; x <= centerX + radius; x++) {
+                for (int z = centerZ - radius; z <= centerZ + radius; z++) {
+                    ChunkSnapshot snapshot = view.get(x, z);
+                    if (snapshot == null) {
+                        continue;
+                    }
+                    for (int y = minY; y <= maxY; y++) {
+                        scanned++;
+                        if (snapshot.getBlockType(x & 15, y, z & 15) != Material.NETHER_PORTAL
+                                || !hasReinforcedDeepslateNearby(view, x, y, z)) {
+                            continue;
+                        }
+
+                        double dy = (y - centerY) / yDivisor;
+                        double distance = (x - centerX) * (x - centerX) + (z - centerZ) * (z - centerZ) + dy * dy;
+                        if (distance < bestDistance) {
+                            bestDistance = distance;
+                            bestX = x;
+                            bestY = y;
+                            bestZ = z;
+                            found = true;
+                        }
+                    }
+                }
+            }
+            return new Result(found ? new Location(world, bestX + 0.5, bestY, bestZ + 0.5) : null, scanned);
+        }, workers).thenApplyAsync(result -> {
+            if (transition != null) {
+                transition.addBlocksScanned(result.scanned);
+            }
+            return result.location;
+        }, mainThread);
+    }
+
+    /**
+     * Find where to build a portal for a target location: the frame's bottom corner in the
+     * target column, on solid ground and with room for the frame, as close to the target's
+     * height as possible. The frame's chunks are loaded first, since a chunk that is not
+     * loaded would read as air; the future fails if one cannot be loaded. Must be called on
+     * the main thread; the future completes on the main thread.
+     */
+    public CompletableFuture<Location> findBuildSite(Location target) {
+        World world = target.getWorld();
+        int x = target.getBlockX();
+        int targetY = target.getBlockY();
+        int z = target.getBlockZ();
+
+        List<CompletableFuture<Chunk>> loads = new ArrayList<>();
+        for (int chunkX = x >> 4; chunkX <= (x + BUILD_WIDTH - 1) >> 4; chunkX++) {
+            loads.add(world.getChunkAtAsync(chunkX, z >> 4));
+        }
+
+        int minY = world.getMinHeight();
+        int maxHeight = world.getMaxHeight();
+        return CompletableFuture.allOf(loads.toArray(new CompletableFuture[0])).thenCompose(ignored -> {
+            // Paper completes chunk futures on the main thread, so the chunks are still loaded
+            Map<Long, ChunkSnapshot> snapshots = new HashMap<>();
+            for (CompletableFuture<Chunk> load : loads) {
+                Chunk chunk = load.join();
+                snapshots.put(WarpedCoords.chunkKey(chunk.getX(), chunk.getZ()), chunk.getChunkSnapshot(true, false, false));
+            }
+
+            return CompletableFuture.supplyAsync(() -> {
+                SnapshotView view = new SnapshotView(snapshots, minY, maxHeight - 1);
+                return new Location(world, x, findBuildY(view, x, targetY, z, minY, maxHeight), z);
+            }, workers);
+        }).thenApplyAsync(location -> location, mainThread);
+    }
+
+    private static int findBuildY(SnapshotView view, int x, int targetY, int z, int minY, int maxHeight) {
+        // Try to find solid ground near the target Y level
+        for (int yOffset = 0; yOffset <= 20; yOffset++) {
+            for (int sign = -1; sign <= 1; sign += 2) {
+                int y = targetY + (yOffset * sign);
+                if (y < minY || y > maxHeight - 10) {
+                    continue;
+                }
+                if (isSafeForPortal(view, x, y, z)) {
+                    return y;
+                }
+            }
+        }
+
+        // If no safe location found, try to find a safe spot above the highest block
+        int highestY = view.getHighestY(x, z);
+        for (int y = highestY + 1; y < Math.min(maxHeight - 5, highestY + 15); y++) {
+            if (isSafeForPortal(view, x, y, z)) {
+                return y;
+            }
+        }
+
+        // If still no safe location, try to find ground above sea level that's not water
+        for (int y = Math.max(63, minY + 10); y < maxHeight - 5; y++) {
+            if (isSafeForPortal(view, x, y, z)) {
+                return y;
+            }
+        }
+
+        // Last resort: above sea level
+        return Math.max(65, highestY + 2);
+    }
+
+    private static boolean isSafeForPortal(SnapshotView view, int x, int y, int z) {
+        // Check if there's solid ground below (not water or lava)
+        Material below = view.getType(x, y - 1, z);
+        if (!below.isSolid() || below == Material.WATER || below == Material.LAVA) {
+            return false;
+        }
+
+        // Check if there's enough space for the frame, only air and certain replaceable blocks
+        for (int dx = 0; dx < BUILD_WIDTH; dx++) {
+            for (int dy = 0; dy < BUILD_HEIGHT; dy++) {
+                Material type = view.getType(x + dx, y + dy, z);
+                if (type != Material.AIR && !type.name().contains("GRASS") &&
+                    !type.name().contains("ROOTS") && !type.name().contains("VINE")) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static void capture(World world, Map<Long, ChunkSnapshot> snapshots, int chunkX, int chunkZ) {
+        if (world.isChunkLoaded(chunkX, chunkZ)) {
+            snapshots.put(WarpedCoords.chunkKey(chunkX, chunkZ),
+                world.getChunkAt(chunkX, chunkZ).getChunkSnapshot(false, false, false));
+        }
+    }
+
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private static boolean hasReinforcedDeepslateNearby(SnapshotView view, int x, int y, int z) {
+        // Frame blocks touch the portal block within its 3x3x3 neighbourhood
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dz = -1; dz <= 1; dz++) {
+                    if ((dx != 0 || dy != 0 || dz != 0) && view.getType(x + dx, y + dy, z + dz) == Material.REINFORCED_DEEPSLATE) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static class Result {
+        private final Location location;
+        private final long scanned;
+
+        private Result(Location location, long scanned) {
+            this.location = location;
+            this.scanned = scanned;
+        }
+    }
+
+    /**
+     * Block lookups across the captured snapshots
+     */
+    private static class SnapshotView {
+        private final Map<Long, ChunkSnapshot> snapshots;
+        private final int minY;
+        private final int maxY;
+
+        private SnapshotView(Map<Long, ChunkSnapshot> snapshots, int minY, int maxY) {
+            this.snapshots = snapshots;
+            this.minY = minY;
+            this.maxY = maxY;
+        }
+
+        private ChunkSnapshot get(int x, int z) {
+            return snapshots.get(WarpedCoords.chunkKey(x >> 4, z >> 4));
+        }
+
+        /**
+         * Y of the highest non-air block, like World.getHighestBlockYAt
+         */
+        private int getHighestY(int x, int z) {
+            ChunkSnapshot snapshot = get(x, z);
+            // Snapshots report the first free block above the surface
+            return snapshot == null ? minY - 1 : snapshot.getHighestBlockYAt(x & 15, z & 15) - 1;
+        }
+
+        /**
+         * Block type, air outside the world's height or in a chunk that was skipped because it
+         * was not loaded. Build sites always have their chunks.
+         */
+        private Material getType(int x, int y, int z) {
+            ChunkSnapshot snapshot = get(x, z);
+            if (snapshot == null || y < minY || y > maxY) {
+                return Material.AIR;
+            }
+            return snapshot.getBlockType(x & 15, y, z & 15);
+        }
+    }
+}
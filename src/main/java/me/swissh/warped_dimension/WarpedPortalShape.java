@@ -0,0 +1,209 @@
+package me.swissh.warped_dimension;
+
+import org.bukkit.Axis;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.data.Orientable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The interior of a reinforced deepslate portal frame. Frames are found by flood-filling
+ * the open area next to a frame block once, so a frame of any size costs one read per
+ * interior block plus its border instead of a scan per candidate width and height.
+ */
+public class WarpedPortalShape {
+
+    public static final int MIN_WIDTH = 2;  // Interior, a 4x5 frame
+    public static final int MIN_HEIGHT = 3;
+    public static final int MAX_SIZE = 21;  // Interior, a 23x23 frame
+
+    private static final int GRID = MAX_SIZE * 2 - 1; // Offsets from the start block stay within +-(MAX_SIZE - 1)
+    private static final int ORIGIN = MAX_SIZE - 1;
+
+    private final World world;
+    private final Axis axis;
+    private final int cornerX;
+    private final int cornerY;
+    private final int cornerZ;
+    private final int width;
+    private final int height;
+
+    private WarpedPortalShape(World world, Axis axis, int cornerX, int cornerY, int cornerZ, int width, int height) {
+        this.world = world;
+        this.axis = axis;
+        this.cornerX = cornerX;
+        this.cornerY = cornerY;
+        this.cornerZ = cornerZ;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Find the portal frame a reinforced deepslate block belongs to, or null if it does
+     * not frame an empty rectangle in either orientation
+     */
+    public static WarpedPortalShape find(Block frameBlock) {
+        for (Axis axis : new Axis[] {Axis.X, Axis.Z}) {
+            int stepX = axis == Axis.X ? 1 : 0;
+            int stepZ = axis == Axis.Z ? 1 : 0;
+
+            // The interior touches the frame block on one of its sides within the portal plane
+            int[][] neighbours = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+            for (int[] neighbour : neighbours) {
+                Block start = frameBlock.getRelative(neighbour[0] * stepX, neighbour[1], neighbour[0] * stepZ);
+                if (!isOpen(start.getType())) {
+                    continue;
+                }
+
+                WarpedPortalShape shape = fill(start, axis, stepX, stepZ);
+                if (shape != null) {
+                    return shape;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Flood-fill the open area around a start block within one plane. The area is a portal
+     * interior if it stays within the size limit, is bordered only by reinforced deepslate,
+     * and exactly fills its bounding rectangle.
+     */
+    private static WarpedPortalShape fill(Block start, Axis axis, int stepX, int stepZ) {
+        World world = start.getWorld();
+        int startX = start.getX();
+        int startY = start.getY();
+        int startZ = start.getZ();
+
+        boolean[] visited = new boolean[GRID * GRID];
+        int[] queue = new int[MAX_SIZE * MAX_SIZE];
+        int head = 0;
+        int tail = 0;
+        int minU = 0, maxU = 0, minV = 0, maxV = 0;
+
+        visited[ORIGIN * GRID + ORIGIN] = true;
+        queue[tail++] = ORIGIN * GRID + ORIGIN;
+
+        while (head < tail) {
+            int cell = queue[head++];
+            int u = cell % GRID - ORIGIN;
+            int v = cell / GRID - ORIGIN;
+
+            for (int i = 0; i < 4; i++) {
+                int nu = u + (i == 0 ? 1 : i == 1 ? -1 : 0);
+                int nv = v + (i == 2 ? 1 : i == 3 ? -1 : 0);
+
+                // Anything beyond the largest frame cannot be part of the interior
+                boolean inRange = Math.max(maxU, nu) - Math.min(minU, nu) < MAX_SIZE
+                    && Math.max(maxV, nv) - Math.min(minV, nv) < MAX_SIZE;
+                int index = (nv + ORIGIN) * GRID + (nu + ORIGIN);
+                if (inRange && visited[index]) {
+                    continue;
+                }
+
+                Material type = world.getBlockAt(startX + nu * stepX, startY + nv, startZ + nu * stepZ).getType();
+                if (!isOpen(type)) {
+                    if (type != Material.REINFORCED_DEEPSLATE) {
+                        return null;
+                    }
+                    continue;
+                }
+                if (!inRange) {
+                    return null;
+                }
+
+                visited[index] = true;
+                queue[tail++] = index;
+                minU = Math.min(minU, nu);
+                maxU = Math.max(maxU, nu);
+                minV = Math.min(minV, nv);
+                maxV = Math.max(maxV, nv);
+            }
+        }
+
+        int width = maxU - minU + 1;
+        int height = maxV - minV + 1;
+        if (width < MIN_WIDTH || height < MIN_HEIGHT || tail != width * height) {
+            return null; // Too small, or not a rectangle
+        }
+
+        // The border was checked by the fill; the frame corners are required too
+        for (int u : new int[] {minU - 1, maxU + 1}) {
+            for (int v : new int[] {minV - 1, maxV + 1}) {
+                if (world.getBlockAt(startX + u * stepX, startY + v, startZ + u * stepZ).getType() != Material.REINFORCED_DEEPSLATE) {
+                    return null;
+                }
+            }
+        }
+
+        return new WarpedPortalShape(world, axis,
+            startX + minU * stepX, startY + minV, startZ + minU * stepZ, width, height);
+    }
+
+    /**
+     * Find the frame around a block inside a portal, or null if it is not framed
+     */
+    public static WarpedPortalShape fromInterior(Block block, Axis axis) {
+        if (!isOpen(block.getType())) {
+            return null;
+        }
+        return axis == Axis.Z ? fill(block, Axis.Z, 0, 1) : fill(block, Axis.X, 1, 0);
+    }
+
+    /**
+     * Find the frame around a portal block along the block's own axis, or null if it is not framed
+     */
+    public static WarpedPortalShape fromPortalBlock(Block block) {
+        if (block.getType() != Material.NETHER_PORTAL) {
+            return null;
+        }
+        // Portal blocks are flat along their axis
+        Axis axis = block.getBlockData() instanceof Orientable orientable ? orientable.getAxis() : Axis.X;
+        return fromInterior(block, axis);
+    }
+
+    private static boolean isOpen(Material type) {
+        return type == Material.AIR || type == Material.NETHER_PORTAL;
+    }
+
+    public Axis getAxis() {
+        return axis;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * The middle of the interior's bottom row, on the block center across the portal. It only
+     * depends on the frame, so it is the same whichever block of the portal it is found from.
+     */
+    public Location getCenter() {
+        double x = axis == Axis.X ? cornerX + width / 2.0 : cornerX + 0.5;
+        double z = axis == Axis.Z ? cornerZ + width / 2.0 : cornerZ + 0.5;
+        return new Location(world, x, cornerY, z);
+    }
+
+    /**
+     * The interior blocks, column by column from the bottom corner
+     */
+    public List<Block> getInterior() {
+        int stepX = axis == Axis.X ? 1 : 0;
+        int stepZ = axis == Axis.Z ? 1 : 0;
+        List<Block> interior = new ArrayList<>(width * height);
+        for (int w = 0; w < width; w++) {
+            for (int h = 0; h < height; h++) {
+                interior.add(world.getBlockAt(cornerX + w * stepX, cornerY + h, cornerZ + w * stepZ));
+            }
+        }
+        return interior;
+    }
+}
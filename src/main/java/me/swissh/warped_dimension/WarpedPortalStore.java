@@ -0,0 +1,332 @@
+package me.swissh.warped_dimension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Persists the portal registry as a binary append-only log (portals.log) plus a compacted
+ * snapshot (portals.dat). Both hold the same record stream: world name records followed by
+ * put and remove records with packed coordinates and link ids. Records are encoded on the
+ * main thread and written by a single IO thread in order. A torn record at the end of the
+ * log after a crash is dropped on replay.
+ *
+ * Compaction writes the current registry to a temporary file, moves it over the snapshot
+ * and then truncates the log. If the server dies in between, replaying the old log over the
+ * new snapshot gives the same registry, because each put or remove overrides by id. The
+ * snapshot also keeps the next portal id, so ids of portals removed before compaction are
+ * not handed out again.
+ */
+public class WarpedPortalStore {
+
+    private static final int SNAPSHOT_MAGIC = 0x57504F52; // "WPOR"
+    private static final int VERSION = 2; // Version 1 snapshots have no next portal id
+
+    private static final byte RECORD_WORLD = 1;
+    private static final byte RECORD_PUT = 2;
+    private static final byte RECORD_REMOVE = 3;
+
+    private static final int COMPACT_MIN_RECORDS = 1024;
+
+    private final Logger logger;
+    private final Path logPath;
+    private final Path snapshotPath;
+    private final Path tempPath;
+    private final ExecutorService ioExecutor;
+
+    // Main thread state
+    private final Map<String, Integer> worldIds = new HashMap<>();
+    private int nextPortalId = 1;
+    private int logRecords;
+
+    // IO thread state
+    private FileChannel logChannel;
+
+    public WarpedPortalStore(File dataFolder, Logger logger) {
+        this.logger = logger;
+        this.logPath = new File(dataFolder, "portals.log").toPath();
+        this.snapshotPath = new File(dataFolder, "portals.dat").toPath();
+        this.tempPath = new File(dataFolder, "portals.dat.tmp").toPath();
+        this.ioExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Warped Portal Store");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Replay the snapshot and the log. Called once on startup, before any other method.
+     * Returns the portals per world name.
+     */
+    public Map<String, List<WarpedPortal>> load() {
+        Map<String, Map<Integer, WarpedPortal>> state = new LinkedHashMap<>();
+        try {
+            Files.createDirectories(logPath.getParent());
+            if (Files.exists(snapshotPath)) {
+                ByteBuffer snapshot = ByteBuffer.wrap(Files.readAllBytes(snapshotPath));
+                int version = snapshot.remaining() >= 8 && snapshot.getInt() == SNAPSHOT_MAGIC ? snapshot.getInt() : -1;
+                if (version == 1 || (version == VERSION && snapshot.remaining() >= 4)) {
+                    if (version == VERSION) {
+                        nextPortalId = Math.max(nextPortalId, snapshot.getInt());
+                    }
+                    replay(snapshot, state, new HashMap<>());
+                } else {
+                    logger.warning("Ignoring unreadable portal snapshot " + snapshotPath.getFileName());
+                }
+            }
+
+            logRecords = 0;
+            logChannel = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            // Read into a heap buffer rather than mapping, a mapped file cannot be truncated on Windows
+            ByteBuffer log = ByteBuffer.allocate((int) logChannel.size());
+            while (log.hasRemaining()) {
+                if (logChannel.read(log, log.position()) < 0) {
+                    break;
+                }
+            }
+            log.flip();
+            Map<Integer, String> logWorldNames = new HashMap<>();
+            int validLength = replay(log, state, logWorldNames);
+
+            // New records continue the log, so they must use the log's world ids
+            for (Map.Entry<Integer, String> entry : logWorldNames.entrySet()) {
+                worldIds.put(entry.getValue(), entry.getKey());
+            }
+            if (validLength < logChannel.size()) {
+                logger.warning("Dropping " + (logChannel.size() - validLength) + " bytes of incomplete portal log records");
+                logChannel.truncate(validLength);
+            }
+            logChannel.position(validLength);
+        } catch (IOException e) {
+            logger.severe("Could not load the portal registry: " + e.getMessage());
+        }
+
+        Map<String, List<WarpedPortal>> portals = new HashMap<>();
+        for (Map.Entry<String, Map<Integer, WarpedPortal>> entry : state.entrySet()) {
+            portals.put(entry.getKey(), new ArrayList<>(entry.getValue().values()));
+            for (WarpedPortal portal : entry.getValue().values()) {
+                nextPortalId = Math.max(nextPortalId, portal.getId() + 1);
+            }
+        }
+        return portals;
+    }
+
+    /**
+     * Replay records into the state, returning the length of the complete records read
+     */
+    private int replay(ByteBuffer buffer, Map<String, Map<Integer, WarpedPortal>> state, Map<Integer, String> worldNames) {
+        int validLength = buffer.position();
+        try {
+            while (buffer.hasRemaining()) {
+                byte type = buffer.get();
+                if (type == RECORD_WORLD) {
+                    int worldId = buffer.getShort();
+                    byte[] name = new byte[buffer.getShort()];
+                    buffer.get(name);
+                    String worldName = new String(name, StandardCharsets.UTF_8);
+                    worldNames.put(worldId, worldName);
+                } else if (type == RECORD_PUT) {
+                    String worldName = worldNames.get((int) buffer.getShort());
+                    WarpedPortal portal = new WarpedPortal(buffer.getInt(), buffer.getLong(), buffer.get(), buffer.getInt());
+                    state.computeIfAbsent(worldName, k -> new LinkedHashMap<>()).put(portal.getId(), portal);
+                    nextPortalId = Math.max(nextPortalId, portal.getId() + 1);
+                } else if (type == RECORD_REMOVE) {
+                    String worldName = worldNames.get((int) buffer.getShort());
+                    int portalId = buffer.getInt();
+                    Map<Integer, WarpedPortal> portals = state.get(worldName);
+                    if (portals != null) {
+                        portals.remove(portalId);
+                    }
+                    nextPortalId = Math.max(nextPortalId, portalId + 1);
+                } else {
+                    break;
+                }
+                validLength = buffer.position();
+                logRecords++;
+            }
+        } catch (BufferUnderflowException e) {
+            // Torn final record
+        }
+        return validLength;
+    }
+
+    /**
+     * Get a new portal id, never used before in this store
+     */
+    public int nextId() {
+        return nextPortalId++;
+    }
+
+    /**
+     * Record a new or changed portal
+     */
+    public void put(String worldName, WarpedPortal portal) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            int worldId = getWorldId(worldName, out);
+            out.writeByte(RECORD_PUT);
+            out.writeShort(worldId);
+            out.writeInt(portal.getId());
+            out.writeLong(portal.getPosition());
+            out.writeByte(portal.getOffsets());
+            out.writeInt(portal.getLinkId());
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // In-memory stream
+        }
+        append(bytes.toByteArray());
+    }
+
+    /**
+     * Record a removed portal
+     */
+    public void remove(String worldName, WarpedPortal portal) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            int worldId = getWorldId(worldName, out);
+            out.writeByte(RECORD_REMOVE);
+            out.writeShort(worldId);
+            out.writeInt(portal.getId());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        append(bytes.toByteArray());
+    }
+
+    /**
+     * Whether the log has grown enough compared to the registry to be worth compacting
+     */
+    public boolean shouldCompact(int livePortals) {
+        return logRecords >= COMPACT_MIN_RECORDS && logRecords > 2 * livePortals;
+    }
+
+    /**
+     * Write the given registry as the new snapshot on the IO thread and clear the log.
+     * The registry must be a copy that reflects every put and remove recorded so far.
+     */
+    public void compact(Map<String, List<WarpedPortal>> registry) {
+        // The snapshot repeats the world records, so ids must be assigned again for the new log
+        worldIds.clear();
+        logRecords = 0;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(nextPortalId);
+            Map<String, Integer> snapshotWorldIds = new HashMap<>();
+            for (Map.Entry<String, List<WarpedPortal>> entry : registry.entrySet()) {
+                int worldId = snapshotWorldIds.size();
+                snapshotWorldIds.put(entry.getKey(), worldId);
+                writeWorldRecord(out, worldId, entry.getKey());
+                for (WarpedPortal portal : entry.getValue()) {
+                    out.writeByte(RECORD_PUT);
+                    out.writeShort(worldId);
+                    out.writeInt(portal.getId());
+                    out.writeLong(portal.getPosition());
+                    out.writeByte(portal.getOffsets());
+                    out.writeInt(portal.getLinkId());
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] snapshot = bytes.toByteArray();
+
+        ioExecutor.execute(() -> {
+            try {
+                Files.write(tempPath, snapshot);
+                try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.WRITE)) {
+                    channel.force(true);
+                }
+                try {
+                    Files.move(tempPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tempPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING);
+                }
+                if (logChannel != null) {
+                    logChannel.truncate(0);
+                    logChannel.position(0);
+                }
+            } catch (IOException e) {
+                logger.warning("Could not compact the portal registry: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Flush and close the log. Waits a few seconds for pending writes.
+     */
+    public void close() {
+        ioExecutor.execute(() -> {
+            try {
+                if (logChannel != null) {
+                    logChannel.force(true);
+                    logChannel.close();
+                }
+            } catch (IOException e) {
+                logger.warning("Could not close the portal log: " + e.getMessage());
+            }
+        });
+        ioExecutor.shutdown();
+        try {
+            if (!ioExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warning("Timed out writing the portal registry");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int getWorldId(String worldName, DataOutputStream out) throws IOException {
+        Integer worldId = worldIds.get(worldName);
+        if (worldId == null) {
+            worldId = worldIds.size();
+            worldIds.put(worldName, worldId);
+            writeWorldRecord(out, worldId, worldName);
+            logRecords++;
+        }
+        return worldId;
+    }
+
+    private void writeWorldRecord(DataOutputStream out, int worldId, String worldName) throws IOException {
+        byte[] name = worldName.getBytes(StandardCharsets.UTF_8);
+        out.writeByte(RECORD_WORLD);
+        out.writeShort(worldId);
+        out.writeShort(name.length);
+        out.write(name);
+    }
+
+    private void append(byte[] record) {
+        logRecords++;
+        ioExecutor.execute(() -> {
+            try {
+                if (logChannel != null) {
+                    ByteBuffer buffer = ByteBuffer.wrap(record);
+                    while (buffer.hasRemaining()) {
+                        logChannel.write(buffer);
+                    }
+                }
+            } catch (IOException e) {
+                logger.warning("Could not append to the portal log: " + e.getMessage());
+            }
+        });
+    }
+}
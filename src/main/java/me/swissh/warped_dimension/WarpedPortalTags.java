@@ -0,0 +1,210 @@
+package me.swissh.warped_dimension;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.bukkit.persistence.PersistentDataType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Remembers which portal blocks belong to warped portals. The interior blocks of every
+ * warped portal are stored as packed positions in their chunk's PersistentDataContainer
+ * and mirrored in memory while the chunk is loaded, so classifying a portal block is a
+ * single lookup. Portals built before tagging existed are checked once against their frame
+ * and tagged, and blocks that fail the check are remembered as ordinary portals.
+ */
+public class WarpedPortalTags implements Listener {
+
+    private static final int MAX_NEGATIVE_CACHE = 4096;
+
+    private final NamespacedKey key;
+    // World -> chunk key -> sorted packed positions of tagged portal blocks
+    private final Map<UUID, Map<Long, long[]>> tagged = new HashMap<>();
+    // World -> packed positions of portal blocks known not to be warped portals
+    private final Map<UUID, Set<Long>> untagged = new HashMap<>();
+
+    public WarpedPortalTags(Warped_dimension plugin) {
+        this.key = new NamespacedKey(plugin, "portal_blocks");
+
+        // Chunks loaded before the plugin enabled never fire a load event for us
+        for (World world : Bukkit.getWorlds()) {
+            for (Chunk chunk : world.getLoadedChunks()) {
+                loadChunk(chunk);
+            }
+        }
+    }
+
+    /**
+     * Check if a portal block belongs to a warped portal. Untagged portals are checked
+     * against their frame once and tagged if they turn out to be warped portals.
+     */
+    public boolean isWarpedPortal(Block block) {
+        if (isTagged(block)) {
+            return true;
+        }
+
+        long position = WarpedCoords.pack(block.getX(), block.getY(), block.getZ());
+        Set<Long> known = untagged.computeIfAbsent(block.getWorld().getUID(), k -> new HashSet<>());
+        if (known.contains(position)) {
+            return false;
+        }
+
+        List<Block> interior = findFramedInterior(block);
+        if (interior == null) {
+            if (known.size() >= MAX_NEGATIVE_CACHE) {
+                known.clear();
+            }
+            known.add(position);
+            return false;
+        }
+
+        tag(block.getWorld(), interior);
+        return true;
+    }
+
+    public boolean isTagged(Block block) {
+        Map<Long, long[]> chunks = tagged.get(block.getWorld().getUID());
+        if (chunks == null) {
+            return false;
+        }
+        long[] positions = chunks.get(WarpedCoords.chunkKey(block.getX() >> 4, block.getZ() >> 4));
+        return positions != null
+            && Arrays.binarySearch(positions, WarpedCoords.pack(block.getX(), block.getY(), block.getZ())) >= 0;
+    }
+
+    /**
+     * Tag the interior blocks of a warped portal
+     */
+    public void tag(World world, List<Block> blocks) {
+        Map<Long, List<Long>> byChunk = new HashMap<>();
+        for (Block block : blocks) {
+            byChunk.computeIfAbsent(WarpedCoords.chunkKey(block.getX() >> 4, block.getZ() >> 4), k -> new ArrayList<>())
+                .add(WarpedCoords.pack(block.getX(), block.getY(), block.getZ()));
+        }
+
+        Map<Long, long[]> chunks = tagged.computeIfAbsent(world.getUID(), k -> new HashMap<>());
+        Set<Long> known = untagged.get(world.getUID());
+        for (Map.Entry<Long, List<Long>> entry : byChunk.entrySet()) {
+            long[] existing = chunks.getOrDefault(entry.getKey(), new long[0]);
+            long[] merged = Arrays.copyOf(existing, existing.length + entry.getValue().size());
+            int i = existing.length;
+            for (long position : entry.getValue()) {
+                merged[i++] = position;
+                if (known != null) {
+                    known.remove(position);
+                }
+            }
+            Arrays.sort(merged);
+            merged = Arrays.stream(merged).distinct().toArray();
+            store(world, entry.getKey(), merged);
+        }
+    }
+
+    /**
+     * Drop tags within a radius whose block is no longer a portal block
+     */
+    public void untagMissing(World world, int x, int y, int z, int radius) {
+        Map<Long, long[]> chunks = tagged.get(world.getUID());
+        if (chunks == null) {
+            return;
+        }
+
+        for (int chunkX = (x - radius) >> 4; chunkX <= (x + radius) >> 4; chunkX++) {
+            for (int chunkZ = (z - radius) >> 4; chunkZ <= (z + radius) >> 4; chunkZ++) {
+                long chunkKey = WarpedCoords.chunkKey(chunkX, chunkZ);
+                long[] positions = chunks.get(chunkKey);
+                if (positions == null) {
+                    continue;
+                }
+
+                long[] kept = Arrays.stream(positions).filter(position -> {
+                    int blockX = WarpedCoords.unpackX(position);
+                    int blockY = WarpedCoords.unpackY(position);
+                    int blockZ = WarpedCoords.unpackZ(position);
+                    if (Math.abs(blockX - x) > radius || Math.abs(blockY - y) > radius || Math.abs(blockZ - z) > radius) {
+                        return true;
+                    }
+                    return world.getBlockAt(blockX, blockY, blockZ).getType() == Material.NETHER_PORTAL;
+                }).toArray();
+
+                if (kept.length != positions.length) {
+                    store(world, chunkKey, kept);
+                }
+            }
+        }
+    }
+
+    /**
+     * Find the interior of the reinforced deepslate frame around a portal block, or null if
+     * the block is not inside one
+     */
+    private List<Block> findFramedInterior(Block block) {
+        WarpedPortalShape shape = WarpedPortalShape.fromPortalBlock(block);
+        if (shape == null) {
+            return null;
+        }
+
+        List<Block> interior = shape.getInterior();
+        for (Block current : interior) {
+            if (current.getType() != Material.NETHER_PORTAL) {
+                return null;
+            }
+        }
+        return interior;
+    }
+
+    private void store(World world, long chunkKey, long[] positions) {
+        Map<Long, long[]> chunks = tagged.computeIfAbsent(world.getUID(), k -> new HashMap<>());
+        Chunk chunk = world.getChunkAt((int) (chunkKey >> 32), (int) chunkKey);
+        if (positions.length == 0) {
+            chunks.remove(chunkKey);
+            chunk.getPersistentDataContainer().remove(key);
+        } else {
+            chunks.put(chunkKey, positions);
+            chunk.getPersistentDataContainer().set(key, PersistentDataType.LONG_ARRAY, positions);
+        }
+    }
+
+    private void loadChunk(Chunk chunk) {
+        long[] positions = chunk.getPersistentDataContainer().get(key, PersistentDataType.LONG_ARRAY);
+        if (positions != null && positions.length > 0) {
+            tagged.computeIfAbsent(chunk.getWorld().getUID(), k -> new HashMap<>())
+                .put(WarpedCoords.chunkKey(chunk.getX(), chunk.getZ()), positions);
+        }
+    }
+
+    @EventHandler
+    public void onChunkLoad(ChunkLoadEvent event) {
+        loadChunk(event.getChunk());
+    }
+
+    @EventHandler
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        Map<Long, long[]> chunks = tagged.get(event.getWorld().getUID());
+        if (chunks != null) {
+            chunks.remove(WarpedCoords.chunkKey(event.getChunk().getX(), event.getChunk().getZ()));
+        }
+    }
+
+    @EventHandler
+    public void onWorldUnload(WorldUnloadEvent event) {
+        tagged.remove(event.getWorld().getUID());
+        untagged.remove(event.getWorld().getUID());
+    }
+}
@@ -0,0 +1,287 @@
+package me.swissh.warped_dimension;
+
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.logging.Logger;
+
+/**
+ * Pregenerates warped world chunks in a spiral around one or more centers through the async
+ * chunk API. A main thread task keeps at most max-concurrent chunk requests in flight and
+ * pauses while the server's average tick time is above max-mspt. Progress is saved to
+ * pregen.yml in the plugin folder so an interrupted run resumes on the next start.
+ *
+ * Every chunk is requested, even ones that already exist: checking first with
+ * World.isChunkGenerated reads region files on the main thread. Chunks that existed are
+ * told apart by the load event, which reports whether the chunk was newly generated.
+ */
+public class WarpedPregenerator implements Listener {
+
+    private static final String STATE_FILE = "pregen.yml";
+    private static final int MAX_REQUESTS_PER_TICK = 16; // Matters once existing chunks complete at once
+    private static final long SAVE_INTERVAL_MS = 10_000;
+    private static final long REPORT_INTERVAL_MS = 30_000;
+
+    private final Warped_dimension plugin;
+    private final Logger logger;
+    private final int maxConcurrent;
+    private final double maxMspt;
+
+    private World world;
+    private int radius;
+    private List<int[]> centers; // Chunk coordinates
+    private long total;
+    private long position; // Next spiral position over all centers
+    private final TreeSet<Long> pending = new TreeSet<>(); // Positions with a request in flight
+    private final Set<Long> requestedChunks = new HashSet<>(); // Chunk keys with a request in flight
+    private final Set<Long> newChunks = new HashSet<>(); // Requested chunks that were generated, not loaded
+    private long generated;
+    private long skipped;
+    private long failed;
+    private boolean throttled;
+    private BukkitTask task;
+    private long lastSave;
+    private long lastReport;
+
+    public WarpedPregenerator(Warped_dimension plugin) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.maxConcurrent = Math.max(1, plugin.getConfig().getInt("pregen.max-concurrent", 8));
+        this.maxMspt = plugin.getConfig().getDouble("pregen.max-mspt", 45.0);
+    }
+
+    public boolean isRunning() {
+        return task != null;
+    }
+
+    /**
+     * Start a new run. Returns false if one is already running.
+     */
+    public boolean start(World world, int radius, List<int[]> centers) {
+        if (isRunning()) {
+            return false;
+        }
+
+        this.world = world;
+        this.radius = radius;
+        this.centers = new ArrayList<>(centers);
+        this.position = 0;
+        begin();
+        saveState();
+        logger.info("Pregenerating " + total + " chunks in " + world.getName() + " around " + centers.size() + " center(s)");
+        return true;
+    }
+
+    /**
+     * Resume a run saved by a previous server start, if there is one
+     */
+    public void resume() {
+        File file = new File(plugin.getDataFolder(), STATE_FILE);
+        if (isRunning() || !file.exists()) {
+            return;
+        }
+
+        YamlConfiguration state = YamlConfiguration.loadConfiguration(file);
+        World savedWorld = Bukkit.getWorld(state.getString("world", ""));
+        if (savedWorld == null) {
+            logger.warning("Not resuming pregeneration, world " + state.getString("world") + " is not loaded");
+            return;
+        }
+
+        List<int[]> savedCenters = new ArrayList<>();
+        for (String center : state.getStringList("centers")) {
+            String[] parts = center.split(",");
+            savedCenters.add(new int[] { Integer.parseInt(parts[0]), Integer.parseInt(parts[1]) });
+        }
+
+        this.world = savedWorld;
+        this.radius = state.getInt("radius");
+        this.centers = savedCenters;
+        this.position = state.getLong("position");
+        begin();
+        logger.info("Resuming pregeneration of " + world.getName() + " at " + position + "/" + total + " chunks");
+    }
+
+    /**
+     * Stop the current run and forget its progress
+     */
+    public boolean stop() {
+        if (!isRunning()) {
+            return false;
+        }
+        task.cancel();
+        task = null;
+        new File(plugin.getDataFolder(), STATE_FILE).delete();
+        logger.info("Pregeneration stopped at " + position + "/" + total + " chunks");
+        return true;
+    }
+
+    /**
+     * Pause the current run on plugin disable, keeping its progress for the next start
+     */
+    public void shutdown() {
+        if (!isRunning()) {
+            return;
+        }
+        task.cancel();
+        task = null;
+        saveState();
+    }
+
+    public String getStatus() {
+        if (!isRunning()) {
+            return "§7No pregeneration running.";
+        }
+        double percent = total == 0 ? 100.0 : position * 100.0 / total;
+        return "§ePregenerating §f" + world.getName() + "§e: §f" + position + "/" + total +
+            " §7(" + String.format("%.1f", percent) + "%, " + generated + " generated, " + skipped + " already existed, " +
+            pending.size() + " in flight" + (throttled ? ", paused for high MSPT" : "") + ")";
+    }
+
+    private void begin() {
+        long perCenter = (2L * radius + 1) * (2L * radius + 1);
+        this.total = perCenter * centers.size();
+        this.pending.clear();
+        this.requestedChunks.clear();
+        this.newChunks.clear();
+        this.generated = 0;
+        this.skipped = 0;
+        this.failed = 0;
+        this.lastSave = System.currentTimeMillis();
+        this.lastReport = lastSave;
+        this.task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+
+    private void tick() {
+        long now = System.currentTimeMillis();
+        if (now - lastSave >= SAVE_INTERVAL_MS) {
+            saveState();
+            lastSave = now;
+        }
+        if (now - lastReport >= REPORT_INTERVAL_MS) {
+            logger.info(getStatus().replaceAll("§.", ""));
+            lastReport = now;
+        }
+
+        // Back off while the server is struggling, generation would only make it worse
+        throttled = Bukkit.getAverageTickTime() > maxMspt;
+        if (throttled) {
+            return;
+        }
+
+        int requests = 0;
+        while (pending.size() < maxConcurrent && position < total && requests < MAX_REQUESTS_PER_TICK) {
+            long current = position++;
+            requests++;
+
+            int[] center = centers.get((int) (current / (total / centers.size())));
+            int[] offset = spiralOffset(current % (total / centers.size()));
+            int chunkX = center[0] + offset[0];
+            int chunkZ = center[1] + offset[1];
+            long chunkKey = WarpedCoords.chunkKey(chunkX, chunkZ);
+
+            // Paper completes chunk futures on the main thread
+            pending.add(current);
+            requestedChunks.add(chunkKey);
+            world.getChunkAtAsync(chunkX, chunkZ, true).whenComplete((chunk, error) -> {
+                pending.remove(current);
+                requestedChunks.remove(chunkKey);
+                boolean isNew = newChunks.remove(chunkKey);
+                if (error != null) {
+                    failed++;
+                    logger.warning("Failed to generate chunk " + chunkX + ", " + chunkZ + ": " + error.getMessage());
+                } else if (isNew) {
+                    generated++;
+                } else {
+                    skipped++;
+                }
+            });
+        }
+
+        if (position >= total && pending.isEmpty()) {
+            task.cancel();
+            task = null;
+            new File(plugin.getDataFolder(), STATE_FILE).delete();
+            logger.info("Pregeneration of " + world.getName() + " finished: " + generated + " chunks generated, " +
+                skipped + " already existed, " + failed + " failed");
+        }
+    }
+
+    @EventHandler
+    public void onChunkLoad(ChunkLoadEvent event) {
+        // Fires before the chunk's future completes
+        if (event.isNewChunk() && !requestedChunks.isEmpty() && event.getWorld() == world) {
+            long chunkKey = WarpedCoords.chunkKey(event.getChunk().getX(), event.getChunk().getZ());
+            if (requestedChunks.contains(chunkKey)) {
+                newChunks.add(chunkKey);
+            }
+        }
+    }
+
+    /**
+     * Offset of the n-th chunk of a square spiral: the center, then each ring of
+     * Chebyshev radius k (8k chunks) in turn
+     */
+    private static int[] spiralOffset(long n) {
+        if (n == 0) {
+            return new int[] { 0, 0 };
+        }
+
+        // Ring k holds positions (2k-1)^2 .. (2k+1)^2 - 1
+        int k = (int) ((Math.sqrt(n + 1) - 1) / 2);
+        while ((2L * k + 1) * (2L * k + 1) <= n) {
+            k++;
+        }
+        while ((2L * k - 1) * (2L * k - 1) > n) {
+            k--;
+        }
+
+        int offset = (int) (n - (2L * k - 1) * (2L * k - 1));
+        int side = offset / (2 * k);
+        int step = offset % (2 * k);
+        switch (side) {
+            case 0:
+                return new int[] { k, -k + 1 + step };
+            case 1:
+                return new int[] { k - 1 - step, k };
+            case 2:
+                return new int[] { -k, k - 1 - step };
+            default:
+                return new int[] { -k + 1 + step, -k };
+        }
+    }
+
+    private void saveState() {
+        // Chunks still in flight are requested again on resume, they load as existing if they finished
+        long resumeAt = pending.isEmpty() ? position : pending.first();
+
+        YamlConfiguration state = new YamlConfiguration();
+        state.set("world", world.getName());
+        state.set("radius", radius);
+        List<String> centerList = new ArrayList<>();
+        for (int[] center : centers) {
+            centerList.add(center[0] + "," + center[1]);
+        }
+        state.set("centers", centerList);
+        state.set("position", resumeAt);
+
+        try {
+            plugin.getDataFolder().mkdirs();
+            state.save(new File(plugin.getDataFolder(), STATE_FILE));
+        } catch (IOException e) {
+            logger.warning("Could not save pregeneration progress: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package me.swissh.warped_dimension;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Low-overhead timings for world generation stages, safe to record from worldgen threads.
+ * Each stage keeps count, total and max plus a histogram for percentiles.
+ */
+public class WarpedProfiler {
+
+    private static final Map<String, Stage> STAGES = new ConcurrentHashMap<>();
+
+    /**
+     * Get or create the stage with this name. Callers keep the returned stage in a field.
+     */
+    public static Stage stage(String name) {
+        return STAGES.computeIfAbsent(name, Stage::new);
+    }
+
+    /**
+     * All stages sorted by name
+     */
+    public static List<Stage> getStages() {
+        List<Stage> stages = new ArrayList<>(STAGES.values());
+        stages.sort(Comparator.comparing(Stage::getName));
+        return stages;
+    }
+
+    public static void reset() {
+        for (Stage stage : STAGES.values()) {
+            stage.reset();
+        }
+    }
+
+    public static class Stage {
+        private final String name;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+        private final WarpedHistogram histogram = new WarpedHistogram();
+
+        private Stage(String name) {
+            this.name = name;
+        }
+
+        public void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            histogram.record(nanos);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        /**
+         * Percentile (0-100) in nanoseconds, never above the recorded max
+         */
+        public long getPercentileNanos(double percentile) {
+            return Math.min(histogram.getPercentile(percentile), getMaxNanos());
+        }
+
+        private void reset() {
+            count.reset();
+            totalNanos.reset();
+            maxNanos.reset();
+            histogram.reset();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package me.swissh.warped_dimension;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Runs /warped ruins searches off the main thread. Each player has at most one search
+ * running; it is cancelled when they quit or change worlds.
+ */
+public class WarpedRuinsLocator implements Listener {
+
+    public static final int MAX_REGION_RADIUS = 64; // About 10000 blocks, over a million chunks
+
+    private final Warped_dimension plugin;
+    private final Map<UUID, Search> searches = new ConcurrentHashMap<>();
+
+    public WarpedRuinsLocator(Warped_dimension plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Search radius in blocks
+     */
+    public int getSearchRadius() {
+        return MAX_REGION_RADIUS * WarpedRuinsPlacement.SPACING * 16;
+    }
+
+    /**
+     * Start a spiral search outward from the player. The callback runs on the main thread with
+     * the ruins center as {blockX, blockZ}, or null if none were found, and only if the player
+     * is still in the world the search started in. Returns false if a search is already running.
+     */
+    public boolean locate(Player player, World warpedWorld, Consumer<int[]> callback) {
+        Location origin = player.getLocation();
+        Search search = new Search(origin.getWorld());
+        if (searches.putIfAbsent(player.getUniqueId(), search) != null) {
+            return false;
+        }
+
+        long seed = warpedWorld.getSeed();
+        int originX = origin.getBlockX();
+        int originZ = origin.getBlockZ();
+
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            int[] ruins = WarpedRuinsPlacement.locateNearest(seed, originX, originZ,
+                MAX_REGION_RADIUS, () -> search.cancelled);
+
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                searches.remove(player.getUniqueId(), search);
+                if (search.cancelled || !player.isOnline() || player.getWorld() != search.world) {
+                    return;
+                }
+                callback.accept(ruins);
+            });
+        });
+        return true;
+    }
+
+    public void cancel(Player player) {
+        Search search = searches.remove(player.getUniqueId());
+        if (search != null) {
+            search.cancelled = true;
+        }
+    }
+
+    public void cancelAll() {
+        for (Search search : searches.values()) {
+            search.cancelled = true;
+        }
+        searches.clear();
+    }
+
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        cancel(event.getPlayer());
+    }
+
+    @EventHandler
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+        cancel(event.getPlayer());
+    }
+
+    private static class Search {
+        private final World world;
+        private volatile boolean cancelled;
+
+        private Search(World world) {
+            this.world = world;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package me.swissh.warped_dimension;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Spacing/separation placement for warped ruins, in the style of vanilla structure sets.
+ * The world is split into square regions of SPACING chunks and each region gets one
+ * candidate chunk picked from its seed. Generation and /warped ruins both use this class,
+ * so the locate command always agrees with what was generated.
+ */
+public class WarpedRuinsPlacement {
+
+    public static final int SPACING = 10; // Region size in chunks
+    public static final int SEPARATION = 4; // Minimum gap in chunks between candidates of neighbouring regions
+    private static final long SALT = 20734519L;
+
+    // Per-seed cache of region results: packed ruins chunk, or NO_RUINS
+    private static final Map<Long, Map<Long, Long>> REGION_CACHES = new ConcurrentHashMap<>();
+    private static final long NO_RUINS = Long.MIN_VALUE;
+    private static final int MAX_CACHED_REGIONS = 1 << 16;
+
+    /**
+     * Get the candidate chunk of a placement region as {chunkX, chunkZ}
+     */
+    public static int[] getCandidateChunk(long seed, int regionX, int regionZ) {
+        Random random = new Random(regionX * 341873128712L + regionZ * 132897987541L + seed + SALT);
+        int offsetX = random.nextInt(SPACING - SEPARATION);
+        int offsetZ = random.nextInt(SPACING - SEPARATION);
+        return new int[] { regionX * SPACING + offsetX, regionZ * SPACING + offsetZ };
+    }
+
+    /**
+     * Whether the chunk is the candidate chunk of its region. Ruins are generated in
+     * candidate chunks whose biome is a warped forest.
+     */
+    public static boolean isCandidateChunk(long seed, int chunkX, int chunkZ) {
+        int[] candidate = getCandidateChunk(seed, Math.floorDiv(chunkX, SPACING), Math.floorDiv(chunkZ, SPACING));
+        return candidate[0] == chunkX && candidate[1] == chunkZ;
+    }
+
+    /**
+     * Whether the candidate chunk of a region actually gets ruins, returning its chunk or null
+     */
+    public static int[] getRuinsChunk(long seed, int regionX, int regionZ) {
+        Map<Long, Long> cache = REGION_CACHES.computeIfAbsent(seed, k -> new ConcurrentHashMap<>());
+        long regionKey = pack(regionX, regionZ);
+        Long cached = cache.get(regionKey);
+        if (cached != null) {
+            return cached == NO_RUINS ? null : new int[] { (int) (cached >> 32), (int) (long) cached };
+        }
+
+        int[] candidate = getCandidateChunk(seed, regionX, regionZ);
+        WarpedBiomes biomeType = WarpedBiomeCache.forSeed(seed).getChunkBiome(candidate[0], candidate[1]);
+        int[] ruins = biomeType == WarpedBiomes.WARPED_FOREST ? candidate : null;
+
+        // Results never change for a seed, so a full cache is simply started over
+        if (cache.size() >= MAX_CACHED_REGIONS) {
+            cache.clear();
+        }
+        cache.put(regionKey, ruins == null ? NO_RUINS : pack(ruins[0], ruins[1]));
+        return ruins;
+    }
+
+    /**
+     * Find the ruins closest to a block position by walking placement regions in rings
+     * around it. Returns the ruins center as {blockX, blockZ}, or null if there are none
+     * within maxRegionRadius rings.
+     */
+    public static int[] locateNearest(long seed, int blockX, int blockZ, int maxRegionRadius) {
+        return locateNearest(seed, blockX, blockZ, maxRegionRadius, () -> false);
+    }
+
+    /**
+     * Same as locateNearest, but gives up and returns null as soon as cancelled reports true.
+     * The check runs once per ring.
+     */
+    public static int[] locateNearest(long seed, int blockX, int blockZ, int maxRegionRadius, BooleanSupplier cancelled) {
+        int originRegionX = Math.floorDiv(blockX >> 4, SPACING);
+        int originRegionZ = Math.floorDiv(blockZ >> 4, SPACING);
+
+        int[] nearest = null;
+        long nearestDistance = Long.MAX_VALUE;
+
+        for (int ring = 0; ring <= maxRegionRadius; ring++) {
+            if (cancelled.getAsBoolean()) {
+                return null;
+            }
+
+            // Every region in this ring is at least (ring - 1) regions away from the origin
+            // region's edge, so once that exceeds the best hit nothing closer can follow
+            long ringMinDistance = (long) Math.max(0, ring - 1) * SPACING * 16;
+            if (nearest != null && ringMinDistance * ringMinDistance > nearestDistance) {
+                break;
+            }
+
+            for (int dx = -ring; dx <= ring; dx++) {
+                for (int dz = -ring; dz <= ring; dz++) {
+                    // Only the border of the ring, the inside was covered already
+                    if (Math.abs(dx) != ring && Math.abs(dz) != ring) {
+                        continue;
+                    }
+
+                    int[] chunk = getRuinsChunk(seed, originRegionX + dx, originRegionZ + dz);
+                    if (chunk == null) {
+                        continue;
+                    }
+
+                    int ruinsX = chunk[0] * 16 + 8;
+                    int ruinsZ = chunk[1] * 16 + 8;
+                    long distX = ruinsX - blockX;
+                    long distZ = ruinsZ - blockZ;
+                    long distance = distX * distX + distZ * distZ;
+                    if (distance < nearestDistance) {
+                        nearestDistance = distance;
+                        nearest = new int[] { ruinsX, ruinsZ };
+                    }
+                }
+            }
+        }
+        return nearest;
+    }
+
+    private static long pack(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+}
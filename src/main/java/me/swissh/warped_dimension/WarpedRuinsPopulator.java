@@ -1,86 +1,81 @@
 package me.swissh.warped_dimension;
 
 import org.bukkit.Material;
-import org.bukkit.generator.BlockPopulator;
-import org.bukkit.generator.LimitedRegion;
 import org.bukkit.generator.WorldInfo;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Random;
 
-public class WarpedRuinsPopulator extends BlockPopulator {
+public class WarpedRuinsPopulator extends WarpedFeaturePopulator {
 
     @Override
-    public void populate(@NotNull WorldInfo worldInfo, @NotNull Random random, int chunkX, int chunkZ, @NotNull LimitedRegion limitedRegion) {
-        // Only populate in the warped dimension
-        if (!worldInfo.getName().equals("warped_dimension")) {
-            return;
-        }
-
-        // Check if this chunk should have ruins
-        int centerX = chunkX * 16 + 8;
-        int centerZ = chunkZ * 16 + 8;
-        
-        // Use the biome provider to determine biome type
-        WarpedBiomeProvider biomeProvider = new WarpedBiomeProvider();
-        WarpedBiomes biomeType = biomeProvider.getWarpedBiomeType(centerX, centerZ, worldInfo.getSeed());
+    public String getName() {
+        return "ruins";
+    }
 
+    @Override
+    public boolean appliesTo(WarpedBiomes biomeType) {
         // Only generate ruins in warped forest biome
-        if (biomeType != WarpedBiomes.WARPED_FOREST) {
-            return;
-        }
+        return biomeType == WarpedBiomes.WARPED_FOREST;
+    }
+
+    @Override
+    public void generate(@NotNull WarpedChunkContext context, @NotNull Random random) {
+        WorldInfo worldInfo = context.getWorldInfo();
+        int centerX = context.getChunkX() * 16 + 8;
+        int centerZ = context.getChunkZ() * 16 + 8;
 
-        // 1% chance to generate ruins in each chunk (much rarer than villages)
-        if (random.nextDouble() > 0.01) {
+        // One candidate chunk per placement region (much rarer than villages)
+        if (!WarpedRuinsPlacement.isCandidateChunk(worldInfo.getSeed(), context.getChunkX(), context.getChunkZ())) {
             return;
         }
 
         // Generate ruins
-        generateWarpedRuins(limitedRegion, random, centerX, centerZ, worldInfo);
+        generateWarpedRuins(context, random, centerX, centerZ, worldInfo);
     }
 
-    private void generateWarpedRuins(@NotNull LimitedRegion region, @NotNull Random random, int centerX, int centerZ, @NotNull WorldInfo worldInfo) {
+    private void generateWarpedRuins(@NotNull WarpedChunkContext context, @NotNull Random random, int centerX, int centerZ, @NotNull WorldInfo worldInfo) {
         // Find a suitable location for the ruins with better terrain integration
-        int ruinsY = findSuitableRuinsLocation(region, centerX, centerZ, worldInfo);
+        int ruinsY = findSuitableRuinsLocation(context, centerX, centerZ, worldInfo);
         if (ruinsY == -1) return;
 
         // Generate different types of ruins with terrain integration
         int ruinType = random.nextInt(8);
         switch (ruinType) {
             case 0:
-                generateAncientTower(region, random, centerX, ruinsY, centerZ);
+                generateAncientTower(context, random, centerX, ruinsY, centerZ);
                 break;
             case 1:
-                generateBrokenTemple(region, random, centerX, ruinsY, centerZ);
+                generateBrokenTemple(context, random, centerX, ruinsY, centerZ);
                 break;
             case 2:
-                generateCrystalRuins(region, random, centerX, ruinsY, centerZ);
+                generateCrystalRuins(context, random, centerX, ruinsY, centerZ);
                 break;
             case 3:
-                generateWarpedFortress(region, random, centerX, ruinsY, centerZ);
+                generateWarpedFortress(context, random, centerX, ruinsY, centerZ);
                 break;
             case 4:
-                generateSculkMonument(region, random, centerX, ruinsY, centerZ);
+                generateSculkMonument(context, random, centerX, ruinsY, centerZ);
                 break;
             case 5:
-                generateFloatingRuins(region, random, centerX, ruinsY, centerZ);
+                generateFloatingRuins(context, random, centerX, ruinsY, centerZ);
                 break;
             case 6:
-                generateUndergroundRuins(region, random, centerX, ruinsY, centerZ);
+                generateUndergroundRuins(context, random, centerX, ruinsY, centerZ);
                 break;
             case 7:
-                generateCliffsideRuins(region, random, centerX, ruinsY, centerZ);
+                generateCliffsideRuins(context, random, centerX, ruinsY, centerZ);
                 break;
         }
     }
 
-    private void generateAncientTower(@NotNull LimitedRegion region, @NotNull Random random, int x, int y, int z) {
+    private void generateAncientTower(@NotNull WarpedChunkContext context, @NotNull Random random, int x, int y, int z) {
         // Generate a sophisticated partially collapsed tower with terrain integration
         int height = 6 + random.nextInt(8); // 6-13 blocks tall (smaller)
         int radius = 2 + random.nextInt(2); // 2-3 block radius (smaller)
         
         // Create foundation that follows terrain
-        createFoundation(region, x, y, z, radius + 1);
+        createFoundation(context, x, y, z, radius + 1);
         
         // Tower base with better integration
         for (int dy = 0; dy < height; dy++) {
@@ -90,17 +85,17 @@ public class WarpedRuinsPopulator extends BlockPopulator {
                     int blockY = y + dy;
                     int blockZ = z + dz;
                     
-                    if (!region.isInRegion(blockX, blockY, blockZ)) continue;
+                    if (!context.isInRegion(blockX, blockY, blockZ)) continue;
                     
                     // Create hollow tower with sophisticated damage patterns
                     if (dx == -radius || dx == radius || dz == -radius || dz == radius) {
                         double damageChance = 0.2 + (dy * 0.05); // More damage higher up
                         if (random.nextDouble() > damageChance) {
-                            region.setType(blockX, blockY, blockZ, Material.BLACKSTONE);
+                            context.setType(blockX, blockY, blockZ, Material.BLACKSTONE);
                             
                             // Add some variety with different blackstone types
                             if (random.nextDouble() < 0.3) {
-                                region.setType(blockX, blockY, blockZ, Material.POLISHED_BLACKSTONE);
+                                context.setType(blockX, blockY, blockZ, Material.POLISHED_BLACKSTONE);
                             }
                         }
                     }
@@ -112,8 +107,8 @@ public class WarpedRuinsPopulator extends BlockPopulator {
         for (int i = 0; i < 3; i++) {
             int offsetX = random.nextInt(radius * 2 + 1) - radius;
             int offsetZ = random.nextInt(radius * 2 + 1) - radius;
-            if (region.isInRegion(x + offsetX, y + height - 1, z + offsetZ)) {
-                region.setType(x + offsetX, y + height - 1, z + offsetZ, Material.WARPED_WART_BLOCK);
+            if (context.isInRegion(x + offsetX, y + height - 1, z + offsetZ)) {
+                context.setType(x + offsetX, y + height - 1, z + offsetZ, Material.WARPED_WART_BLOCK);
             }
         }
         
@@ -122,8 +117,8 @@ public class WarpedRuinsPopulator extends BlockPopulator {
             int offsetX = random.nextInt(12) - 6;
             int offsetZ = random.nextInt(12) - 6;
             int offsetY = random.nextInt(3) + 1;
-            if (region.isInRegion(x + offsetX, y + offsetY, z + offsetZ)) {
-                region.setType(x + offsetX, y + offsetY, z + offsetZ, Material.BLACKSTONE);
+            if (context.isInRegion(x + offsetX, y + offsetY, z + offsetZ)) {
+                context.setType(x + offsetX, y + offsetY, z + offsetZ, Material.BLACKSTONE);
             }
         }
         
@@ -132,13 +127,13 @@ public class WarpedRuinsPopulator extends BlockPopulator {
             int offsetX = random.nextInt(radius * 2 + 1) - radius;
             int offsetZ = random.nextInt(radius * 2 + 1) - radius;
             int offsetY = random.nextInt(height);
-            if (region.isInRegion(x + offsetX, y + offsetY, z + offsetZ)) {
-                region.setType(x + offsetX, y + offsetY, z + offsetZ, Material.WARPED_ROOTS);
+            if (context.isInRegion(x + offsetX, y + offsetY, z + offsetZ)) {
+                context.setType(x + offsetX, y + offsetY, z + offsetZ, Material.WARPED_ROOTS);
             }
         }
     }
 
-    private void generateBrokenTemple(@NotNull LimitedRegion region, @NotNull Random random, int x, int y, int z) {
+    private void generateBrokenTemple(@NotNull WarpedChunkContext context, @NotNull Random random, int x, int y, int z) {
         // Generate a ruined temple structure
         int width = 8 + random.nextInt(8); // 8-15 blocks wide
         int length = 8 + random.nextInt(8); // 8-15 blocks long
@@ -152,7 +147,7 @@ public class WarpedRuinsPopulator extends BlockPopulator {
                     int blockY = y + dy;
                     int blockZ = z + dz;
                     
-                    if (!region.isInRegion(blockX, blockY, blockZ)) continue;
+                    if (!context.isInRegion(blockX, blockY, blockZ)) continue;
                     
                     Material material;
                     if (dy == 0) {
@@ -175,7 +170,7 @@ public class WarpedRuinsPopulator extends BlockPopulator {
                         material = Material.AIR;
                     }
                     
-                    region.setType(blockX, blockY, blockZ, material);
+                    context.setType(blockX, blockY, blockZ, material);
                 }
             }
         }
@@ -185,8 +180,8 @@ public class WarpedRuinsPopulator extends BlockPopulator {
             int colX = x + (i % 2) * (width - 1);
             int colZ = z + (i / 2) * (length - 1);
             for (int dy = 0; dy < height; dy++) {
-                if (region.isInRegion(colX, y + dy, colZ)) {
-                    region.setType(colX, y + dy, colZ, Material.WARPED_STEM);
+                if (context.isInRegion(colX, y + dy, colZ)) {
+                    context.setType(colX, y + dy, colZ, Material.WARPED_STEM);
                 }
             }
         }
@@ -195,13 +190,13 @@ public class WarpedRuinsPopulator extends BlockPopulator {
         for (int i = 0; i < 15; i++) {
             int offsetX = random.nextInt(width + 4) - 2;
             int offsetZ = random.nextInt(length + 4) - 2;
-            if (region.isInRegion(x + offsetX, y, z + offsetZ)) {
-                region.setType(x + offsetX, y, z + offsetZ, Material.BLACKSTONE);
+            if (context.isInRegion(x + offsetX, y, z + offsetZ)) {
+                context.setType(x + offsetX, y, z + offsetZ, Material.BLACKSTONE);
             }
         }
     }
 
-    private void generateCrystalRuins(@NotNull LimitedRegion region, @NotNull Random random, int x, int y, int z) {
+    private void generateCrystalRuins(@NotNull WarpedChunkContext context, @NotNull Random random, int x, int y, int z) {
         // Generate ruins with amethyst crystals
         int size = 6 + random.nextInt(6); // 6-11 blocks
         
@@ -211,10 +206,10 @@ public class WarpedRuinsPopulator extends BlockPopulator {
                 int blockX = x + dx;
                 int blockZ = z + dz;
                 
-                if (!region.isInRegion(blockX, y, blockZ)) continue;
+                if (!context.isInRegion(blockX, y, blockZ)) continue;
                 
                 if (random.nextDouble() > 0.7) {
-                    region.setType(blockX, y, blockZ, Material.BLACKSTONE);
+                    context.setType(blockX, y, blockZ, Material.BLACKSTONE);
                 }
             }
         }
@@ -226,11 +221,11 @@ public class WarpedRuinsPopulator extends BlockPopulator {
             int crystalHeight = 2 + random.nextInt(4);
             
             for (int dy = 0; dy < crystalHeight; dy++) {
-                if (region.isInRegion(x + offsetX, y + dy, z + offsetZ)) {
+                if (context.isInRegion(x + offsetX, y + dy, z + offsetZ)) {
                     if (dy == 0) {
-                        region.setType(x + offsetX, y + dy, z + offsetZ, Material.BUDDING_AMETHYST);
+                        context.setType(x + offsetX, y + dy, z + offsetZ, Material.BUDDING_AMETHYST);
                     } else {
-                        region.setType(x + offsetX, y + dy, z + offsetZ, Material.AMETHYST_BLOCK);
+                        context.setType(x + offsetX, y + dy, z + offsetZ, Material.AMETHYST_BLOCK);
                     }
                 }
             }
@@ -241,13 +236,13 @@ public class WarpedRuinsPopulator extends BlockPopulator {
             int offsetX = random.nextInt(size + 4) - size/2 - 2;
             int offsetZ = random.nextInt(size + 4) - size/2 - 2;
             int offsetY = 2 + random.nextInt(6);
-            if (region.isInRegion(x + offsetX, y + offsetY, z + offsetZ)) {
-                region.setType(x + offsetX, y + offsetY, z + offsetZ, Material.AMETHYST_BLOCK);
+            if (context.isInRegion(x + offsetX, y + offsetY, z + offsetZ)) {
+                context.setType(x + offsetX, y + offsetY, z + offsetZ, Material.AMETHYST_BLOCK);
             }
         }
     }
 
-    private void generateWarpedFortress(@NotNull LimitedRegion region, @NotNull Random random, int x, int y, int z) {
+    private void generateWarpedFortress(@NotNull WarpedChunkContext context, @NotNull Random random, int x, int y, int z) {
         // Generate a ruined fortress
         int width = 10 + random.nextInt(10); // 10-19 blocks wide
         int length = 10 + random.nextInt(10); // 10-19 blocks long
@@ -261,7 +256,7 @@ public class WarpedRuinsPopulator extends BlockPopulator {
                     int blockY = y + dy;
                     int blockZ = z + dz;
                     
-                    if (!region.isInRegion(blockX, blockY, blockZ)) continue;
+                    if (!context.isInRegion(blockX, blockY, blockZ)) continue;
                     
                     Material material;
                     if (dy == 0) {
@@ -284,7 +279,7 @@ public class WarpedRuinsPopulator extends BlockPopulator {
                         material = Material.AIR;
                     }
                     
-                    region.setType(blockX, blockY, blockZ, material);
+                    context.setType(blockX, blockY, blockZ, material);
                 }
             }
         }
@@ -293,8 +288,8 @@ public class WarpedRuinsPopulator extends BlockPopulator {
         for (int i = 0; i < 10; i++) {
             int offsetX = random.nextInt(width);
             int offsetZ = random.nextInt(length);
-            if (region.isInRegion(x + offsetX, y + 1, z + offsetZ)) {
-                region.setType(x + offsetX, y + 1, z + offsetZ, Material.WARPED_WART_BLOCK);
+            if (context.isInRegion(x + offsetX, y + 1, z + offsetZ)) {
+                context.setType(x + offsetX, y + 1, z + offsetZ, Material.WARPED_WART_BLOCK);
             }
         }
         
@@ -303,13 +298,13 @@ public class WarpedRuinsPopulator extends BlockPopulator {
             int offsetX = random.nextInt(width + 6) - 3;
             int offsetZ = random.nextInt(length + 6) - 3;
             int offsetY = 1 + random.nextInt(4);
-            if (region.isInRegion(x + offsetX, y + offsetY, z + offsetZ)) {
-                region.setType(x + offsetX, y + offsetY, z + offsetZ, Material.BLACKSTONE);
+            if (context.isInRegion(x + offsetX, y + offsetY, z + offsetZ)) {
+                context.setType(x + offsetX, y + offsetY, z + offsetZ, Material.BLACKSTONE);
             }
         }
     }
 
-    private void generateSculkMonument(@NotNull LimitedRegion region, @NotNull Random random, int x, int y, int z) {
+    private void generateSculkMonument(@NotNull WarpedChunkContext context, @NotNull Random random, int x, int y, int z) {
         // Generate a sculk-infested monument
         int size = 8 + random.nextInt(6); // 8-13 blocks
         
@@ -319,10 +314,10 @@ public class WarpedRuinsPopulator extends BlockPopulator {
                 int blockX = x + dx;
                 int blockZ = z + dz;
                 
-                if (!region.isInRegion(blockX, y, blockZ)) continue;
+                if (!context.isInRegion(blockX, y, blockZ)) continue;
                 
                 if (random.nextDouble() > 0.6) {
-                    region.setType(blockX, y, blockZ, Material.BLACKSTONE);
+                    context.setType(blockX, y, blockZ, Material.BLACKSTONE);
                 }
             }
         }
@@ -333,7 +328,7 @@ public class WarpedRuinsPopulator extends BlockPopulator {
             int offsetZ = random.nextInt(size) - size/2;
             int offsetY = random.nextInt(3);
             
-            if (region.isInRegion(x + offsetX, y + offsetY, z + offsetZ)) {
+            if (context.isInRegion(x + offsetX, y + offsetY, z + offsetZ)) {
                 Material sculkMaterial;
                 double rand = random.nextDouble();
                 if (rand < 0.1) {
@@ -343,7 +338,7 @@ public class WarpedRuinsPopulator extends BlockPopulator {
                 } else {
                     sculkMaterial = Material.SCULK;
                 }
-                region.setType(x + offsetX, y + offsetY, z + offsetZ, sculkMaterial);
+                context.setType(x + offsetX, y + offsetY, z + offsetZ, sculkMaterial);
             }
         }
         
@@ -352,13 +347,13 @@ public class WarpedRuinsPopulator extends BlockPopulator {
             int offsetX = random.nextInt(size) - size/2;
             int offsetZ = random.nextInt(size) - size/2;
             int offsetY = 1 + random.nextInt(2);
-            if (region.isInRegion(x + offsetX, y + offsetY, z + offsetZ)) {
-                region.setType(x + offsetX, y + offsetY, z + offsetZ, Material.WARPED_WART_BLOCK);
+            if (context.isInRegion(x + offsetX, y + offsetY, z + offsetZ)) {
+                context.setType(x + offsetX, y + offsetY, z + offsetZ, Material.WARPED_WART_BLOCK);
             }
         }
     }
 
-    private void generateFloatingRuins(@NotNull LimitedRegion region, @NotNull Random random, int x, int y, int z) {
+    private void generateFloatingRuins(@NotNull WarpedChunkContext context, @NotNull Random random, int x, int y, int z) {
         // Generate floating ruin fragments
         int fragmentCount = 3 + random.nextInt(5); // 3-7 fragments
         
@@ -376,11 +371,11 @@ public class WarpedRuinsPopulator extends BlockPopulator {
                         int blockY = y + offsetY + dy;
                         int blockZ = z + offsetZ + dz;
                         
-                        if (!region.isInRegion(blockX, blockY, blockZ)) continue;
+                        if (!context.isInRegion(blockX, blockY, blockZ)) continue;
                         
                         if (random.nextDouble() > 0.3) {
                             Material material = random.nextDouble() < 0.7 ? Material.BLACKSTONE : Material.WARPED_WART_BLOCK;
-                            region.setType(blockX, blockY, blockZ, material);
+                            context.setType(blockX, blockY, blockZ, material);
                         }
                     }
                 }
@@ -398,14 +393,14 @@ public class WarpedRuinsPopulator extends BlockPopulator {
                 int blockY = startY + j;
                 int blockZ = startZ + random.nextInt(3) - 1;
                 
-                if (region.isInRegion(blockX, blockY, blockZ)) {
-                    region.setType(blockX, blockY, blockZ, Material.BLACKSTONE);
+                if (context.isInRegion(blockX, blockY, blockZ)) {
+                    context.setType(blockX, blockY, blockZ, Material.BLACKSTONE);
                 }
             }
         }
     }
 
-    private void prepareRuinsArea(@NotNull LimitedRegion region, int centerX, int centerY, int centerZ, @NotNull WorldInfo worldInfo) {
+    private void prepareRuinsArea(@NotNull WarpedChunkContext context, int centerX, int centerY, int centerZ, @NotNull WorldInfo worldInfo) {
         // Only clear a small area around the ruins (8x8 instead of 30x30)
         for (int dx = -4; dx <= 4; dx++) {
             for (int dz = -4; dz <= 4; dz++) {
@@ -414,32 +409,32 @@ public class WarpedRuinsPopulator extends BlockPopulator {
                 
                 // Only clear vegetation in a small area
                 for (int dy = centerY; dy <= centerY + 8; dy++) {
-                    if (region.isInRegion(x, dy, z)) {
-                        Material block = region.getType(x, dy, z);
+                    if (context.isInRegion(x, dy, z)) {
+                        Material block = context.getType(x, dy, z);
                         if (block == Material.WARPED_STEM || block == Material.WARPED_WART_BLOCK || 
                             block == Material.WARPED_ROOTS || block == Material.WARPED_FUNGUS) {
-                            region.setType(x, dy, z, Material.AIR);
+                            context.setType(x, dy, z, Material.AIR);
                         }
                     }
                 }
                 
                 // Ensure solid ground only in the immediate area
-                if (region.isInRegion(x, centerY - 1, z)) {
-                    region.setType(x, centerY - 1, z, Material.WARPED_NYLIUM);
+                if (context.isInRegion(x, centerY - 1, z)) {
+                    context.setType(x, centerY - 1, z, Material.WARPED_NYLIUM);
                 }
             }
         }
     }
 
-    private int findSuitableRuinsLocation(@NotNull LimitedRegion region, int x, int z, @NotNull WorldInfo worldInfo) {
+    private int findSuitableRuinsLocation(@NotNull WarpedChunkContext context, int x, int z, @NotNull WorldInfo worldInfo) {
         // Look for interesting terrain features for ruins
         int bestY = -1;
         int bestScore = 0;
         
         for (int y = worldInfo.getMinHeight() + 10; y < worldInfo.getMaxHeight() - 20; y++) {
-            if (!region.isInRegion(x, y, z)) continue;
+            if (!context.isInRegion(x, y, z)) continue;
             
-            int score = evaluateLocation(region, x, y, z, worldInfo);
+            int score = evaluateLocation(context, x, y, z, worldInfo);
             if (score > bestScore) {
                 bestScore = score;
                 bestY = y;
@@ -449,12 +444,12 @@ public class WarpedRuinsPopulator extends BlockPopulator {
         return bestY;
     }
     
-    private int evaluateLocation(@NotNull LimitedRegion region, int x, int y, int z, @NotNull WorldInfo worldInfo) {
+    private int evaluateLocation(@NotNull WarpedChunkContext context, int x, int y, int z, @NotNull WorldInfo worldInfo) {
         int score = 0;
         
         // Check for solid ground
-        if (!region.isInRegion(x, y - 1, z)) return 0;
-        Material groundBlock = region.getType(x, y - 1, z);
+        if (!context.isInRegion(x, y - 1, z)) return 0;
+        Material groundBlock = context.getType(x, y - 1, z);
         if (groundBlock == Material.AIR || groundBlock == Material.WATER || groundBlock == Material.LAVA) {
             return 0;
         }
@@ -463,8 +458,8 @@ public class WarpedRuinsPopulator extends BlockPopulator {
         int heightVariation = 0;
         for (int dx = -3; dx <= 3; dx++) {
             for (int dz = -3; dz <= 3; dz++) {
-                if (region.isInRegion(x + dx, y, z + dz)) {
-                    Material block = region.getType(x + dx, y, z + dz);
+                if (context.isInRegion(x + dx, y, z + dz)) {
+                    Material block = context.getType(x + dx, y, z + dz);
                     if (block != Material.AIR) {
                         heightVariation++;
                     }
@@ -481,8 +476,8 @@ public class WarpedRuinsPopulator extends BlockPopulator {
         for (int dx = -5; dx <= 5; dx++) {
             for (int dz = -5; dz <= 5; dz++) {
                 if (dx == 0 && dz == 0) continue;
-                if (region.isInRegion(x + dx, y + 3, z + dz)) {
-                    Material block = region.getType(x + dx, y + 3, z + dz);
+                if (context.isInRegion(x + dx, y + 3, z + dz)) {
+                    Material block = context.getType(x + dx, y + 3, z + dz);
                     if (block != Material.AIR) {
                         nearCliff = true;
                         break;
@@ -497,8 +492,8 @@ public class WarpedRuinsPopulator extends BlockPopulator {
         for (int dx = -8; dx <= 8; dx++) {
             for (int dz = -8; dz <= 8; dz++) {
                 if (dx == 0 && dz == 0) continue;
-                if (region.isInRegion(x + dx, y, z + dz)) {
-                    Material block = region.getType(x + dx, y, z + dz);
+                if (context.isInRegion(x + dx, y, z + dz)) {
+                    Material block = context.getType(x + dx, y, z + dz);
                     if (block == Material.WARPED_STEM || block == Material.BLACKSTONE) {
                         nearStructure = true;
                         break;
@@ -511,27 +506,27 @@ public class WarpedRuinsPopulator extends BlockPopulator {
         return score;
     }
 
-    private void createFoundation(@NotNull LimitedRegion region, int x, int y, int z, int radius) {
+    private void createFoundation(@NotNull WarpedChunkContext context, int x, int y, int z, int radius) {
         // Create a foundation that follows the terrain
         for (int dx = -radius; dx <= radius; dx++) {
             for (int dz = -radius; dz <= radius; dz++) {
                 int blockX = x + dx;
                 int blockZ = z + dz;
                 
-                if (!region.isInRegion(blockX, y - 1, blockZ)) continue;
+                if (!context.isInRegion(blockX, y - 1, blockZ)) continue;
                 
                 // Create foundation blocks
-                region.setType(blockX, y - 1, blockZ, Material.BLACKSTONE);
+                context.setType(blockX, y - 1, blockZ, Material.BLACKSTONE);
                 
                 // Add some foundation depth
-                if (region.isInRegion(blockX, y - 2, blockZ)) {
-                    region.setType(blockX, y - 2, blockZ, Material.BLACKSTONE);
+                if (context.isInRegion(blockX, y - 2, blockZ)) {
+                    context.setType(blockX, y - 2, blockZ, Material.BLACKSTONE);
                 }
             }
         }
     }
 
-    private void generateUndergroundRuins(@NotNull LimitedRegion region, @NotNull Random random, int x, int y, int z) {
+    private void generateUndergroundRuins(@NotNull WarpedChunkContext context, @NotNull Random random, int x, int y, int z) {
         // Generate ruins partially buried underground
         int depth = 2 + random.nextInt(4); // 2-5 blocks deep
         int width = 4 + random.nextInt(4); // 4-7 blocks wide
@@ -545,19 +540,19 @@ public class WarpedRuinsPopulator extends BlockPopulator {
                     int blockY = y - dy;
                     int blockZ = z + dz;
                     
-                    if (!region.isInRegion(blockX, blockY, blockZ)) continue;
+                    if (!context.isInRegion(blockX, blockY, blockZ)) continue;
                     
                     if (dy == 0) {
                         // Floor
-                        region.setType(blockX, blockY, blockZ, Material.BLACKSTONE);
+                        context.setType(blockX, blockY, blockZ, Material.BLACKSTONE);
                     } else if (dx == 0 || dx == width - 1 || dz == 0 || dz == length - 1) {
                         // Walls - partially collapsed
                         if (random.nextDouble() > 0.3) {
-                            region.setType(blockX, blockY, blockZ, Material.BLACKSTONE);
+                            context.setType(blockX, blockY, blockZ, Material.BLACKSTONE);
                         }
                     } else {
                         // Interior - air
-                        region.setType(blockX, blockY, blockZ, Material.AIR);
+                        context.setType(blockX, blockY, blockZ, Material.AIR);
                     }
                 }
             }
@@ -567,8 +562,8 @@ public class WarpedRuinsPopulator extends BlockPopulator {
         for (int i = 0; i < 8; i++) {
             int offsetX = random.nextInt(width);
             int offsetZ = random.nextInt(length);
-            if (region.isInRegion(x + offsetX, y - 1, z + offsetZ)) {
-                region.setType(x + offsetX, y - 1, z + offsetZ, Material.SCULK);
+            if (context.isInRegion(x + offsetX, y - 1, z + offsetZ)) {
+                context.setType(x + offsetX, y - 1, z + offsetZ, Material.SCULK);
             }
         }
         
@@ -576,13 +571,13 @@ public class WarpedRuinsPopulator extends BlockPopulator {
         for (int i = 0; i < 5; i++) {
             int offsetX = random.nextInt(width);
             int offsetZ = random.nextInt(length);
-            if (region.isInRegion(x + offsetX, y - 1, z + offsetZ)) {
-                region.setType(x + offsetX, y - 1, z + offsetZ, Material.WARPED_WART_BLOCK);
+            if (context.isInRegion(x + offsetX, y - 1, z + offsetZ)) {
+                context.setType(x + offsetX, y - 1, z + offsetZ, Material.WARPED_WART_BLOCK);
             }
         }
     }
 
-    private void generateCliffsideRuins(@NotNull LimitedRegion region, @NotNull Random random, int x, int y, int z) {
+    private void generateCliffsideRuins(@NotNull WarpedChunkContext context, @NotNull Random random, int x, int y, int z) {
         // Generate ruins built into a cliff face
         int height = 4 + random.nextInt(6); // 4-9 blocks tall
         int width = 3 + random.nextInt(4); // 3-6 blocks wide
@@ -596,19 +591,19 @@ public class WarpedRuinsPopulator extends BlockPopulator {
                     int blockY = y + dy;
                     int blockZ = z + dz;
                     
-                    if (!region.isInRegion(blockX, blockY, blockZ)) continue;
+                    if (!context.isInRegion(blockX, blockY, blockZ)) continue;
                     
                     if (dy == 0) {
                         // Floor
-                        region.setType(blockX, blockY, blockZ, Material.BLACKSTONE);
+                        context.setType(blockX, blockY, blockZ, Material.BLACKSTONE);
                     } else if (dx == 0 || dz == depth - 1) {
                         // Walls - heavily damaged
                         if (random.nextDouble() > 0.4) {
-                            region.setType(blockX, blockY, blockZ, Material.BLACKSTONE);
+                            context.setType(blockX, blockY, blockZ, Material.BLACKSTONE);
                         }
                     } else {
                         // Interior - air
-                        region.setType(blockX, blockY, blockZ, Material.AIR);
+                        context.setType(blockX, blockY, blockZ, Material.AIR);
                     }
                 }
             }
@@ -619,8 +614,8 @@ public class WarpedRuinsPopulator extends BlockPopulator {
             int offsetX = random.nextInt(width);
             int offsetZ = random.nextInt(depth);
             int offsetY = random.nextInt(height);
-            if (region.isInRegion(x + offsetX, y + offsetY, z + offsetZ)) {
-                region.setType(x + offsetX, y + offsetY, z + offsetZ, Material.WARPED_ROOTS);
+            if (context.isInRegion(x + offsetX, y + offsetY, z + offsetZ)) {
+                context.setType(x + offsetX, y + offsetY, z + offsetZ, Material.WARPED_ROOTS);
             }
         }
         
@@ -629,35 +624,9 @@ public class WarpedRuinsPopulator extends BlockPopulator {
             int offsetX = random.nextInt(8) - 4;
             int offsetZ = random.nextInt(8) - 4;
             int offsetY = random.nextInt(3) + 1;
-            if (region.isInRegion(x + offsetX, y + offsetY, z + offsetZ)) {
-                region.setType(x + offsetX, y + offsetY, z + offsetZ, Material.BLACKSTONE);
-            }
-        }
-    }
-
-    private int findSuitableGround(@NotNull LimitedRegion region, int x, int z, @NotNull WorldInfo worldInfo) {
-        // Find solid ground, not water or air
-        for (int y = worldInfo.getMaxHeight() - 1; y >= worldInfo.getMinHeight(); y--) {
-            if (!region.isInRegion(x, y, z)) continue;
-            
-            Material block = region.getType(x, y, z);
-            if (block != Material.AIR && block != Material.WATER && block != Material.LAVA) {
-                // Check if there's enough space above for ruins
-                boolean hasSpace = true;
-                for (int checkY = y + 1; checkY <= y + 15; checkY++) {
-                    if (region.isInRegion(x, checkY, z)) {
-                        Material aboveBlock = region.getType(x, checkY, z);
-                        if (aboveBlock != Material.AIR) {
-                            hasSpace = false;
-                            break;
-                        }
-                    }
-                }
-                if (hasSpace) {
-                    return y + 1;
-                }
+            if (context.isInRegion(x + offsetX, y + offsetY, z + offsetZ)) {
+                context.setType(x + offsetX, y + offsetY, z + offsetZ, Material.BLACKSTONE);
             }
         }
-        return -1;
     }
 }
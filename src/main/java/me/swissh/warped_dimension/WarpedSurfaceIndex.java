@@ -0,0 +1,95 @@
+package me.swissh.warped_dimension;
+
+import org.bukkit.Material;
+import org.bukkit.generator.LimitedRegion;
+
+import java.util.Arrays;
+
+/**
+ * Lazily built 16x16 surface heightmap for the chunk being populated. Each column is
+ * scanned at most once, then kept up to date as features place blocks through the
+ * WarpedChunkContext.
+ */
+public class WarpedSurfaceIndex {
+
+    private static final int UNKNOWN = Integer.MIN_VALUE;
+
+    private final LimitedRegion region;
+    private final int chunkX;
+    private final int chunkZ;
+    private final int minHeight;
+    private final int maxHeight;
+    private final int[] surface = new int[16 * 16];
+
+    public WarpedSurfaceIndex(LimitedRegion region, int chunkX, int chunkZ, int minHeight, int maxHeight) {
+        this.region = region;
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+        this.minHeight = minHeight;
+        this.maxHeight = maxHeight;
+        Arrays.fill(surface, UNKNOWN);
+    }
+
+    /**
+     * Get the Y just above the highest non-air block of a column, or the min height
+     * if the column is empty
+     */
+    public int getSurfaceY(int x, int z) {
+        if (!isInChunk(x, z)) {
+            return scan(x, z);
+        }
+
+        int index = index(x, z);
+        int y = surface[index];
+        if (y == UNKNOWN) {
+            y = scan(x, z);
+            surface[index] = y;
+        }
+        return y;
+    }
+
+    /**
+     * Record a block placed by a feature
+     */
+    public void update(int x, int y, int z, Material material) {
+        if (!isInChunk(x, z)) {
+            return;
+        }
+
+        int index = index(x, z);
+        int current = surface[index];
+        if (current == UNKNOWN) {
+            return;
+        }
+
+        if (material != Material.AIR) {
+            // The scan never reports the bottom block, keep the same rule here
+            if (y > minHeight && y + 1 > current) {
+                surface[index] = y + 1;
+            }
+        } else if (y + 1 == current) {
+            // Top block removed, rescan the column the next time it is asked for
+            surface[index] = UNKNOWN;
+        }
+    }
+
+    private int scan(int x, int z) {
+        for (int y = maxHeight - 1; y > minHeight; y--) {
+            if (region.isInRegion(x, y, z)) {
+                Material blockType = region.getType(x, y, z);
+                if (blockType != Material.AIR) {
+                    return y + 1;
+                }
+            }
+        }
+        return minHeight;
+    }
+
+    private boolean isInChunk(int x, int z) {
+        return (x >> 4) == chunkX && (z >> 4) == chunkZ;
+    }
+
+    private static int index(int x, int z) {
+        return ((z & 15) << 4) | (x & 15);
+    }
+}
@@ -0,0 +1,178 @@
+package me.swissh.warped_dimension;
+
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Admits teleports into a world at a steady rate. A teleport whose destination chunks are
+ * already loaded goes straight through; the rest wait in a per-world queue that starts at
+ * most a configured number of chunk loads per tick, so a crowd using portals or /warped at
+ * once spreads its chunk loading over several ticks. Queued players are held in place and
+ * shown their position in the queue.
+ */
+public class WarpedTeleportScheduler implements Listener {
+
+    private static final int PROGRESS_INTERVAL = 10; // Ticks between action bar updates
+
+    private final int loadsPerTick;
+    // World -> teleports waiting for chunk loads to start, in arrival order
+    private final Map<UUID, ArrayDeque<Request>> queues = new HashMap<>();
+    // Players waiting until their destination chunks are loaded
+    private final Map<UUID, Request> queuedPlayers = new HashMap<>();
+    private int ticks;
+
+    public WarpedTeleportScheduler(Warped_dimension plugin) {
+        this.loadsPerTick = Math.max(1, plugin.getConfig().getInt("teleport.chunk-loads-per-tick", 4));
+        plugin.getServer().getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+
+    /**
+     * Load the chunks within a radius of a destination chunk for a player's teleport. The
+     * future completes on the main thread once they are all loaded, or is cancelled if the
+     * player leaves first. Returns null if the player is already waiting for a teleport.
+     */
+    public CompletableFuture<Void> admit(Player player, World world, int chunkX, int chunkZ, int radius) {
+        if (queuedPlayers.containsKey(player.getUniqueId())) {
+            return null;
+        }
+
+        List<long[]> missing = new ArrayList<>();
+        for (int x = chunkX - radius; x <= chunkX + radius; x++) {
+            for (int z = chunkZ - radius; z <= chunkZ + radius; z++) {
+                if (!world.isChunkLoaded(x, z)) {
+                    missing.add(new long[] {x, z});
+                }
+            }
+        }
+
+        // Loaded destinations skip the queue
+        if (missing.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        Request request = new Request(player, world, missing);
+        queues.computeIfAbsent(world.getUID(), k -> new ArrayDeque<>()).add(request);
+        queuedPlayers.put(player.getUniqueId(), request);
+        request.future.whenComplete((ignored, error) -> queuedPlayers.remove(player.getUniqueId(), request));
+        return request.future;
+    }
+
+    public int getQueued() {
+        return queuedPlayers.size();
+    }
+
+    private void tick() {
+        if (queuedPlayers.isEmpty()) {
+            return;
+        }
+        ticks++;
+
+        for (ArrayDeque<Request> queue : queues.values()) {
+            int budget = loadsPerTick;
+            Iterator<Request> iterator = queue.iterator();
+            while (budget > 0 && iterator.hasNext()) {
+                Request request = iterator.next();
+                budget -= request.startLoads(budget);
+                if (request.allStarted()) {
+                    iterator.remove();
+                    request.finish();
+                }
+            }
+
+            if (ticks % PROGRESS_INTERVAL == 0) {
+                int position = 1;
+                for (Request request : queue) {
+                    request.player.sendActionBar(LegacyComponentSerializer.legacySection().deserialize(
+                        "§5Preparing destination... §7(" + position++ + " of " + queue.size() + " waiting)"));
+                }
+            }
+        }
+    }
+
+    @EventHandler(ignoreCancelled = true)
+    public void onPlayerMove(PlayerMoveEvent event) {
+        if (queuedPlayers.isEmpty() || !queuedPlayers.containsKey(event.getPlayer().getUniqueId())) {
+            return;
+        }
+
+        // Hold queued players where they are, but let them look around
+        Location from = event.getFrom();
+        Location to = event.getTo();
+        if (from.getX() != to.getX() || from.getY() != to.getY() || from.getZ() != to.getZ()) {
+            Location held = from.clone();
+            held.setYaw(to.getYaw());
+            held.setPitch(to.getPitch());
+            event.setTo(held);
+        }
+    }
+
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        Request request = queuedPlayers.remove(event.getPlayer().getUniqueId());
+        if (request != null) {
+            ArrayDeque<Request> queue = queues.get(request.world.getUID());
+            if (queue != null) {
+                queue.remove(request);
+            }
+            request.future.cancel(false);
+        }
+    }
+
+    private static class Request {
+        private final Player player;
+        private final World world;
+        private final List<long[]> chunks;
+        private final List<CompletableFuture<Chunk>> loads = new ArrayList<>();
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private Request(Player player, World world, List<long[]> chunks) {
+            this.player = player;
+            this.world = world;
+            this.chunks = chunks;
+        }
+
+        /**
+         * Start loading up to budget chunks, returns how many were started
+         */
+        private int startLoads(int budget) {
+            int started = 0;
+            while (started < budget && loads.size() < chunks.size()) {
+                long[] chunk = chunks.get(loads.size());
+                loads.add(world.getChunkAtAsync((int) chunk[0], (int) chunk[1]));
+                started++;
+            }
+            return started;
+        }
+
+        private boolean allStarted() {
+            return loads.size() == chunks.size();
+        }
+
+        private void finish() {
+            // Paper completes chunk futures on the main thread
+            CompletableFuture.allOf(loads.toArray(new CompletableFuture[0])).whenComplete((ignored, error) -> {
+                if (error != null) {
+                    future.completeExceptionally(error);
+                } else {
+                    future.complete(null);
+                }
+            });
+        }
+    }
+}
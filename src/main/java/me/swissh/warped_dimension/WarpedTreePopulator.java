@@ -5,33 +5,29 @@ import org.bukkit.Material;
 import org.bukkit.TreeType;
 import org.bukkit.World;
 import org.bukkit.block.Block;
-import org.bukkit.generator.BlockPopulator;
-import org.bukkit.generator.LimitedRegion;
 import org.bukkit.generator.WorldInfo;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Random;
 
-public class WarpedTreePopulator extends BlockPopulator {
+public class WarpedTreePopulator extends WarpedFeaturePopulator {
 
     @Override
-    public void populate(@NotNull WorldInfo worldInfo, @NotNull Random random, int chunkX, int chunkZ, @NotNull LimitedRegion limitedRegion) {
-        // Only populate in the warped dimension
-        if (!worldInfo.getName().equals("warped_dimension")) {
-            return;
-        }
+    public String getName() {
+        return "warped_trees";
+    }
 
-        // Check if this chunk should have warped forest trees
-        int centerX = chunkX * 16 + 8;
-        int centerZ = chunkZ * 16 + 8;
-        
-        // Use the biome provider to determine biome type
-        WarpedBiomeProvider biomeProvider = new WarpedBiomeProvider();
-        WarpedBiomes biomeType = biomeProvider.getWarpedBiomeType(centerX, centerZ, worldInfo.getSeed());
+    @Override
+    public boolean appliesTo(WarpedBiomes biomeType) {
+        // Warped fungi only grow in the warped forest
+        return biomeType == WarpedBiomes.WARPED_FOREST;
+    }
 
-        if (biomeType != WarpedBiomes.WARPED_FOREST) {
-            return;
-        }
+    @Override
+    public void generate(@NotNull WarpedChunkContext context, @NotNull Random random) {
+        WorldInfo worldInfo = context.getWorldInfo();
+        int chunkX = context.getChunkX();
+        int chunkZ = context.getChunkZ();
 
         // Generate warped trees randomly
         int worldX = chunkX * 16;
@@ -44,18 +40,18 @@ public class WarpedTreePopulator extends BlockPopulator {
             int x = worldX + random.nextInt(16);
             int z = worldZ + random.nextInt(16);
 
-            // Find the highest block
-            for (int y = worldInfo.getMaxHeight() - 1; y > worldInfo.getMinHeight(); y--) {
-                if (limitedRegion.isInRegion(x, y, z)) {
-                    Material blockType = limitedRegion.getType(x, y, z);
+            // Find the highest block, everything above the indexed surface is air
+            for (int y = context.getSurfaceY(x, z) - 1; y > worldInfo.getMinHeight(); y--) {
+                if (context.isInRegion(x, y, z)) {
+                    Material blockType = context.getType(x, y, z);
 
                     if (blockType == Material.WARPED_NYLIUM || blockType == Material.SCULK) {
                         // Place warped fungus and try to grow it
-                        if (limitedRegion.isInRegion(x, y + 1, z)) {
-                            limitedRegion.setType(x, y + 1, z, Material.WARPED_FUNGUS);
+                        if (context.isInRegion(x, y + 1, z)) {
+                            context.setType(x, y + 1, z, Material.WARPED_FUNGUS);
 
                             // Generate a huge warped fungus structure manually
-                            generateWarpedTree(limitedRegion, x, y + 1, z, random);
+                            generateWarpedTree(context, x, y + 1, z, random);
                         }
                         break;
                     }
@@ -68,13 +64,13 @@ public class WarpedTreePopulator extends BlockPopulator {
             int x = worldX + random.nextInt(16);
             int z = worldZ + random.nextInt(16);
 
-            for (int y = worldInfo.getMaxHeight() - 1; y > worldInfo.getMinHeight(); y--) {
-                if (limitedRegion.isInRegion(x, y, z) && limitedRegion.isInRegion(x, y + 1, z)) {
-                    Material blockType = limitedRegion.getType(x, y, z);
+            for (int y = context.getSurfaceY(x, z) - 1; y > worldInfo.getMinHeight(); y--) {
+                if (context.isInRegion(x, y, z) && context.isInRegion(x, y + 1, z)) {
+                    Material blockType = context.getType(x, y, z);
 
                     if (blockType == Material.WARPED_NYLIUM || blockType == Material.SCULK) {
                         Material vegetation = random.nextBoolean() ? Material.WARPED_ROOTS : Material.WARPED_FUNGUS;
-                        limitedRegion.setType(x, y + 1, z, vegetation);
+                        context.setType(x, y + 1, z, vegetation);
                         break;
                     }
                 }
@@ -82,13 +78,13 @@ public class WarpedTreePopulator extends BlockPopulator {
         }
     }
 
-    private void generateWarpedTree(LimitedRegion region, int x, int y, int z, Random random) {
+    private void generateWarpedTree(WarpedChunkContext context, int x, int y, int z, Random random) {
         int height = 10 + random.nextInt(10);
 
         // Generate trunk
         for (int i = 0; i < height; i++) {
-            if (region.isInRegion(x, y + i, z)) {
-                region.setType(x, y + i, z, Material.WARPED_STEM);
+            if (context.isInRegion(x, y + i, z)) {
+                context.setType(x, y + i, z, Material.WARPED_STEM);
             }
         }
 
@@ -101,10 +97,10 @@ public class WarpedTreePopulator extends BlockPopulator {
                 for (int dz = -radius; dz <= radius; dz++) {
                     if (Math.abs(dx) + Math.abs(dz) <= radius) {
                         int leafY = canopyStart + dy;
-                        if (region.isInRegion(x + dx, leafY, z + dz)) {
-                            Material current = region.getType(x + dx, leafY, z + dz);
+                        if (context.isInRegion(x + dx, leafY, z + dz)) {
+                            Material current = context.getType(x + dx, leafY, z + dz);
                             if (current == Material.AIR || current == Material.WARPED_ROOTS) {
-                                region.setType(x + dx, leafY, z + dz, Material.WARPED_WART_BLOCK);
+                                context.setType(x + dx, leafY, z + dz, Material.WARPED_WART_BLOCK);
                             }
                         }
                     }
@@ -118,9 +114,9 @@ public class WarpedTreePopulator extends BlockPopulator {
             int shroomX = x + random.nextInt(3) - 1;
             int shroomZ = z + random.nextInt(3) - 1;
 
-            if (region.isInRegion(shroomX, shroomY, shroomZ)) {
-                if (region.getType(shroomX, shroomY, shroomZ) == Material.WARPED_WART_BLOCK) {
-                    region.setType(shroomX, shroomY, shroomZ, Material.SHROOMLIGHT);
+            if (context.isInRegion(shroomX, shroomY, shroomZ)) {
+                if (context.getType(shroomX, shroomY, shroomZ) == Material.WARPED_WART_BLOCK) {
+                    context.setType(shroomX, shroomY, shroomZ, Material.SHROOMLIGHT);
                 }
             }
         }
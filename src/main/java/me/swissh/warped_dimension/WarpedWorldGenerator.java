@@ -11,9 +11,33 @@ import org.jetbrains.annotations.NotNull;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.logging.Logger;
 
 public class WarpedWorldGenerator extends ChunkGenerator {
 
+    // Sky sections are probed every 2 blocks horizontally and every 4 blocks vertically
+    private static final int SECTION_PROBE_STEP_XZ = 2;
+    private static final int SECTION_PROBE_STEP_Y = 4;
+
+    private static final WarpedProfiler.Stage SURFACE_TIMING = WarpedProfiler.stage("generator.surface");
+    private static final WarpedProfiler.Stage BEDROCK_TIMING = WarpedProfiler.stage("generator.bedrock");
+
+    private final Logger logger;
+    private final boolean sectionScan;
+    private final boolean compositePopulators;
+
+    public WarpedWorldGenerator(Warped_dimension plugin) {
+        this(plugin.getLogger(),
+            plugin.getConfig().getBoolean("generation.section-scan", false),
+            plugin.getConfig().getBoolean("generation.composite-populators", true));
+    }
+
+    WarpedWorldGenerator(Logger logger, boolean sectionScan, boolean compositePopulators) {
+        this.logger = logger;
+        this.sectionScan = sectionScan;
+        this.compositePopulators = compositePopulators;
+    }
+
     @Override
     public void generateNoise(@NotNull WorldInfo worldInfo, @NotNull Random random, int chunkX, int chunkZ, @NotNull ChunkData chunkData) {
         // Use amplified terrain generation by delegating to default generator
@@ -32,79 +56,74 @@ public class WarpedWorldGenerator extends ChunkGenerator {
 
     @Override
     public void generateSurface(@NotNull WorldInfo worldInfo, @NotNull Random random, int chunkX, int chunkZ, @NotNull ChunkData chunkData) {
-        // Get biome type for this chunk
-        WarpedBiomeProvider biomeProvider = new WarpedBiomeProvider();
-        int centerX = chunkX * 16 + 8;
-        int centerZ = chunkZ * 16 + 8;
-        WarpedBiomes biomeType = biomeProvider.getWarpedBiomeType(centerX, centerZ, worldInfo.getSeed());
+        long start = System.nanoTime();
+
+        // Get biome type for this chunk from the shared biome cache
+        WarpedBiomes biomeType = WarpedBiomeCache.forSeed(worldInfo.getSeed()).getChunkBiome(chunkX, chunkZ);
+
+        // Replacement table for this biome, indexed by Material ordinal
+        Material[] remap = WarpedBlockRemap.forBiome(biomeType);
+
+        // Skip the empty sky above the terrain when section scanning is enabled
+        int minY = worldInfo.getMinHeight();
+        int maxY = sectionScan ? findTerrainCeiling(chunkData, minY, worldInfo.getMaxHeight()) : worldInfo.getMaxHeight();
 
         // Replace blocks after surface generation
         for (int x = 0; x < 16; x++) {
             for (int z = 0; z < 16; z++) {
-                for (int y = worldInfo.getMinHeight(); y < worldInfo.getMaxHeight(); y++) {
-                    Material block = chunkData.getType(x, y, z);
-
-                    // Replace stone with amethyst block
-                    if (block == Material.STONE || block == Material.DEEPSLATE ||
-                        block == Material.GRANITE || block == Material.DIORITE ||
-                        block == Material.ANDESITE || block == Material.TUFF) {
-                        chunkData.setBlock(x, y, z, Material.AMETHYST_BLOCK);
+                for (int y = minY; y < maxY; y++) {
+                    Material replacement = remap[chunkData.getType(x, y, z).ordinal()];
+                    if (replacement == null) {
+                        continue;
                     }
-                    // Replace dirt with sculk
-                    else if (block == Material.DIRT || block == Material.COARSE_DIRT ||
-                             block == Material.ROOTED_DIRT || block == Material.PODZOL) {
-                        chunkData.setBlock(x, y, z, Material.SCULK);
-                    }
-                    // Replace grass block with appropriate surface based on biome
-                    else if (block == Material.GRASS_BLOCK) {
-                        if (biomeType == WarpedBiomes.AMETHYST_FOREST) {
-                            // In amethyst forest, primarily sculk with amethyst clusters
-                            chunkData.setBlock(x, y, z, Material.SCULK);
-                        } else if (biomeType == WarpedBiomes.SCULK_FOREST) {
-                            // In sculk forest, create patchwork of warped nylium and sculk
-                            if (random.nextDouble() < 0.6) { // 60% warped nylium
-                                chunkData.setBlock(x, y, z, Material.WARPED_NYLIUM);
-                            } else { // 40% sculk
-                                chunkData.setBlock(x, y, z, Material.SCULK);
-                            }
-                        } else {
-                            // Regular warped forest
-                            chunkData.setBlock(x, y, z, Material.WARPED_NYLIUM);
-                        }
-                    }
-                    // Replace tall grass, ferns, etc. with warped roots
-                    else if (block == Material.SHORT_GRASS || block == Material.TALL_GRASS ||
-                             block == Material.FERN || block == Material.LARGE_FERN ||
-                             block == Material.DEAD_BUSH || block == Material.DANDELION ||
-                             block == Material.POPPY || block == Material.BLUE_ORCHID ||
-                             block == Material.ALLIUM || block == Material.AZURE_BLUET ||
-                             block == Material.RED_TULIP || block == Material.ORANGE_TULIP ||
-                             block == Material.WHITE_TULIP || block == Material.PINK_TULIP ||
-                             block == Material.OXEYE_DAISY || block == Material.CORNFLOWER ||
-                             block == Material.LILY_OF_THE_VALLEY || block == Material.SUNFLOWER ||
-                             block == Material.LILAC || block == Material.ROSE_BUSH ||
-                             block == Material.PEONY) {
-                        chunkData.setBlock(x, y, z, Material.WARPED_ROOTS);
-                    }
-                    // Remove lava
-                    else if (block == Material.LAVA) {
-                        chunkData.setBlock(x, y, z, Material.AIR);
-                    }
-                    // Replace tree leaves with warped wart blocks
-                    else if (block.name().contains("LEAVES")) {
-                        chunkData.setBlock(x, y, z, Material.WARPED_WART_BLOCK);
+
+                    // In sculk forest, create patchwork of warped nylium and sculk
+                    if (replacement == WarpedBlockRemap.PATCHWORK) {
+                        replacement = random.nextDouble() < 0.6 ? Material.WARPED_NYLIUM : Material.SCULK; // 60% warped nylium
                     }
-                    // Replace tree logs with warped stems
-                    else if (block.name().contains("LOG") || block.name().contains("WOOD")) {
-                        chunkData.setBlock(x, y, z, Material.WARPED_STEM);
+
+                    chunkData.setBlock(x, y, z, replacement);
+                }
+            }
+        }
+
+        SURFACE_TIMING.record(System.nanoTime() - start);
+    }
+
+    /**
+     * Find the bottom of the empty sky above the terrain. Sections are probed from the top down
+     * and every section whose probes are all air is skipped, until the first one with blocks.
+     */
+    private int findTerrainCeiling(@NotNull ChunkData chunkData, int minY, int maxY) {
+        int ceiling = maxY;
+        for (int sectionY = maxY - 16; sectionY >= minY; sectionY -= 16) {
+            if (!isSectionEmpty(chunkData, sectionY)) {
+                break;
+            }
+            ceiling = sectionY;
+        }
+        return ceiling;
+    }
+
+    private boolean isSectionEmpty(@NotNull ChunkData chunkData, int sectionY) {
+        for (int x = 0; x < 16; x += SECTION_PROBE_STEP_XZ) {
+            for (int z = 0; z < 16; z += SECTION_PROBE_STEP_XZ) {
+                // Stagger the starting height per column so the probes cover every y level of the section
+                int phase = ((x + z) / SECTION_PROBE_STEP_XZ) % SECTION_PROBE_STEP_Y;
+                for (int dy = phase; dy < 16; dy += SECTION_PROBE_STEP_Y) {
+                    if (chunkData.getType(x, sectionY + dy, z) != Material.AIR) {
+                        return false;
                     }
                 }
             }
         }
+        return true;
     }
 
     @Override
     public void generateBedrock(@NotNull WorldInfo worldInfo, @NotNull Random random, int chunkX, int chunkZ, @NotNull ChunkData chunkData) {
+        long start = System.nanoTime();
+
         // Generate bedrock at the bottom
         for (int x = 0; x < 16; x++) {
             for (int z = 0; z < 16; z++) {
@@ -116,6 +135,8 @@ public class WarpedWorldGenerator extends ChunkGenerator {
                 }
             }
         }
+
+        BEDROCK_TIMING.record(System.nanoTime() - start);
     }
 
     @Override
@@ -160,16 +181,32 @@ public class WarpedWorldGenerator extends ChunkGenerator {
     @NotNull
     @Override
     public List<BlockPopulator> getDefaultPopulators(@NotNull World world) {
+        List<WarpedFeaturePopulator> features = createFeatures();
+
         List<BlockPopulator> populators = new ArrayList<>();
-        populators.add(new WarpedTreePopulator());
-        populators.add(new WarpedSculkTreePopulator());
-        populators.add(new WarpedAmethystTreePopulator());
-        populators.add(new WarpedAmethystRocksPopulator());
-        populators.add(new WarpedChorusFlowerPopulator());
-        populators.add(new WarpedRuinsPopulator());
+        if (compositePopulators) {
+            // One populator that shares the chunk context between all features
+            populators.add(new WarpedPopulatorPipeline(logger, features));
+        } else {
+            populators.addAll(features);
+        }
         return populators;
     }
 
+    /**
+     * Every feature in the order they are populated
+     */
+    static List<WarpedFeaturePopulator> createFeatures() {
+        List<WarpedFeaturePopulator> features = new ArrayList<>();
+        features.add(new WarpedTreePopulator());
+        features.add(new WarpedSculkTreePopulator());
+        features.add(new WarpedAmethystTreePopulator());
+        features.add(new WarpedAmethystRocksPopulator());
+        features.add(new WarpedChorusFlowerPopulator());
+        features.add(new WarpedRuinsPopulator());
+        return features;
+    }
+
 
     /**
      * Get the biome provider instance for this generator
@@ -14,7 +14,7 @@ public class WarpedWorldManager {
 
         // Create world with custom generator
         WorldCreator creator = new WorldCreator(worldName);
-        creator.generator(new WarpedWorldGenerator());
+        creator.generator(new WarpedWorldGenerator(plugin));
         creator.environment(World.Environment.NORMAL);
         creator.type(WorldType.AMPLIFIED);
 
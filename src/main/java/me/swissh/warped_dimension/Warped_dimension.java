@@ -7,19 +7,37 @@ import org.bukkit.plugin.java.JavaPlugin;
 public final class Warped_dimension extends JavaPlugin {
 
     private WarpedMobSpawner mobSpawner;
+    private WarpedRuinsLocator ruinsLocator;
+    private WarpedPortalListener portalListener;
+    private WarpedPregenerator pregenerator;
+    private WarpedTeleportScheduler teleportScheduler;
 
     @Override
     public void onEnable() {
         // Plugin startup logic
         getLogger().info("Warped Dimension plugin is starting...");
 
+        // Load config.yml (generation settings)
+        saveDefaultConfig();
+        WarpedJournal.setDebugLogger(getConfig().getBoolean("debug", false) ? getLogger() : null);
+
         // Register event listeners
         getServer().getPluginManager().registerEvents(new WarpedWorldListener(), this);
         getServer().getPluginManager().registerEvents(new WarpedMobSpawnListener(), this);
-        getServer().getPluginManager().registerEvents(new WarpedPortalListener(this), this);
+        teleportScheduler = new WarpedTeleportScheduler(this);
+        getServer().getPluginManager().registerEvents(teleportScheduler, this);
+        WarpedPortalTags portalTags = new WarpedPortalTags(this);
+        getServer().getPluginManager().registerEvents(portalTags, this);
+        portalListener = new WarpedPortalListener(this, portalTags);
+        getServer().getPluginManager().registerEvents(portalListener, this);
+        ruinsLocator = new WarpedRuinsLocator(this);
+        getServer().getPluginManager().registerEvents(ruinsLocator, this);
+
+        pregenerator = new WarpedPregenerator(this);
+        getServer().getPluginManager().registerEvents(pregenerator, this);
 
         // Register commands
-        getCommand("warped").setExecutor(new WarpedCommand(this));
+        getCommand("warped").setExecutor(new WarpedCommand(this, ruinsLocator));
 
         // Create or load the warped dimension world
         Bukkit.getScheduler().runTaskLater(this, () -> {
@@ -31,6 +49,9 @@ public final class Warped_dimension extends JavaPlugin {
                 mobSpawner = new WarpedMobSpawner(this);
                 mobSpawner.runTaskTimer(this, 100L, 100L); // Every 5 seconds
                 getLogger().info("Warped Dimension custom mob spawner started for warped nylium!");
+
+                // Pick up a pregeneration run interrupted by the last shutdown
+                pregenerator.resume();
             }
         }, 20L); // Wait 1 second after server start
 
@@ -43,6 +64,27 @@ public final class Warped_dimension extends JavaPlugin {
         if (mobSpawner != null) {
             mobSpawner.cancel();
         }
+        if (ruinsLocator != null) {
+            ruinsLocator.cancelAll();
+        }
+        if (pregenerator != null) {
+            pregenerator.shutdown();
+        }
+        if (portalListener != null) {
+            portalListener.shutdown();
+        }
         getLogger().info("Warped Dimension plugin disabled!");
     }
-}
\ No newline at end of file
+
+    public WarpedPortalListener getPortalListener() {
+        return portalListener;
+    }
+
+    public WarpedPregenerator getPregenerator() {
+        return pregenerator;
+    }
+
+    public WarpedTeleportScheduler getTeleportScheduler() {
+        return teleportScheduler;
+    }
+}
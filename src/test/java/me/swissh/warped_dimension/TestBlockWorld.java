@@ -0,0 +1,95 @@
+package me.swissh.warped_dimension;
+
+import org.bukkit.Axis;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.data.Orientable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stand-in for a loaded world read block by block, for code that works on World and Block
+ * instead of chunk data. Blocks are air unless set; portal blocks report their axis.
+ */
+class TestBlockWorld {
+
+    private final Map<Long, Material> types = new HashMap<>();
+    private final Map<Long, Axis> axes = new HashMap<>();
+    private final World world;
+
+    TestBlockWorld() {
+        this.world = TestStandIn.create(World.class, "TestBlockWorld", this::invokeWorld);
+    }
+
+    World asWorld() {
+        return world;
+    }
+
+    Block getBlock(int x, int y, int z) {
+        return TestStandIn.create(Block.class, "Block(" + x + ", " + y + ", " + z + ")",
+            (method, args) -> invokeBlock(x, y, z, method, args));
+    }
+
+    Material getType(int x, int y, int z) {
+        return types.getOrDefault(WarpedCoords.pack(x, y, z), Material.AIR);
+    }
+
+    void setType(int x, int y, int z, Material type) {
+        types.put(WarpedCoords.pack(x, y, z), type);
+    }
+
+    void setPortal(int x, int y, int z, Axis axis) {
+        setType(x, y, z, Material.NETHER_PORTAL);
+        axes.put(WarpedCoords.pack(x, y, z), axis);
+    }
+
+    /**
+     * Reinforced deepslate around an interior whose bottom corner is at x, y, z
+     */
+    void setFrame(int x, int y, int z, Axis axis, int width, int height) {
+        int stepX = axis == Axis.X ? 1 : 0;
+        int stepZ = axis == Axis.Z ? 1 : 0;
+        for (int u = -1; u <= width; u++) {
+            for (int v = -1; v <= height; v++) {
+                if (u == -1 || u == width || v == -1 || v == height) {
+                    setType(x + u * stepX, y + v, z + u * stepZ, Material.REINFORCED_DEEPSLATE);
+                }
+            }
+        }
+    }
+
+    private Object invokeWorld(String method, Object[] args) {
+        if (method.equals("getBlockAt") && args.length == 3) {
+            return getBlock((int) args[0], (int) args[1], (int) args[2]);
+        }
+        return TestStandIn.UNSUPPORTED;
+    }
+
+    private Object invokeBlock(int x, int y, int z, String method, Object[] args) {
+        switch (method) {
+            case "getX":
+                return x;
+            case "getY":
+                return y;
+            case "getZ":
+                return z;
+            case "getWorld":
+                return world;
+            case "getType":
+                return getType(x, y, z);
+            case "getRelative":
+                if (args.length == 3) {
+                    return getBlock(x + (int) args[0], y + (int) args[1], z + (int) args[2]);
+                }
+                return TestStandIn.UNSUPPORTED;
+            case "getBlockData":
+                Axis axis = axes.getOrDefault(WarpedCoords.pack(x, y, z), Axis.X);
+                return TestStandIn.create(Orientable.class, "Orientable(" + axis + ")",
+                    (dataMethod, dataArgs) -> dataMethod.equals("getAxis") ? axis : TestStandIn.UNSUPPORTED);
+            default:
+                return TestStandIn.UNSUPPORTED;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package me.swissh.warped_dimension;
+
+import org.bukkit.Material;
+import org.bukkit.generator.ChunkGenerator.ChunkData;
+
+import java.util.Arrays;
+
+/**
+ * Array-backed stand-in for the server's ChunkData, holding one Material per block
+ */
+class TestChunkData {
+
+    private static final Material[] MATERIALS = Material.values();
+
+    private final int minHeight;
+    private final int maxHeight;
+    private final short[] blocks;
+    private final ChunkData chunkData;
+
+    TestChunkData(int minHeight, int maxHeight) {
+        this(minHeight, maxHeight, new short[16 * 16 * (maxHeight - minHeight)]);
+        Arrays.fill(blocks, (short) Material.AIR.ordinal());
+    }
+
+    private TestChunkData(int minHeight, int maxHeight, short[] blocks) {
+        this.minHeight = minHeight;
+        this.maxHeight = maxHeight;
+        this.blocks = blocks;
+        this.chunkData = TestStandIn.create(ChunkData.class, "TestChunkData", this::invoke);
+    }
+
+    /**
+     * The ChunkData view handed to the generator
+     */
+    ChunkData asChunkData() {
+        return chunkData;
+    }
+
+    TestChunkData copy() {
+        return new TestChunkData(minHeight, maxHeight, blocks.clone());
+    }
+
+    int getMinHeight() {
+        return minHeight;
+    }
+
+    int getMaxHeight() {
+        return maxHeight;
+    }
+
+    /**
+     * Block at chunk-relative x and z, AIR outside the chunk like the server's ChunkData
+     */
+    Material getType(int x, int y, int z) {
+        if (!isInChunk(x, y, z)) {
+            return Material.AIR;
+        }
+        return MATERIALS[blocks[index(x, y, z)]];
+    }
+
+    void setBlock(int x, int y, int z, Material material) {
+        if (isInChunk(x, y, z)) {
+            blocks[index(x, y, z)] = (short) material.ordinal();
+        }
+    }
+
+    /**
+     * Fill a box, including the min corner and excluding the max corner
+     */
+    void setRegion(int xMin, int yMin, int zMin, int xMax, int yMax, int zMax, Material material) {
+        for (int y = Math.max(yMin, minHeight); y < Math.min(yMax, maxHeight); y++) {
+            for (int x = Math.max(xMin, 0); x < Math.min(xMax, 16); x++) {
+                for (int z = Math.max(zMin, 0); z < Math.min(zMax, 16); z++) {
+                    blocks[index(x, y, z)] = (short) material.ordinal();
+                }
+            }
+        }
+    }
+
+    private boolean isInChunk(int x, int y, int z) {
+        return x >= 0 && x < 16 && z >= 0 && z < 16 && y >= minHeight && y < maxHeight;
+    }
+
+    private int index(int x, int y, int z) {
+        return ((y - minHeight) << 8) | (z << 4) | x;
+    }
+
+    private Object invoke(String method, Object[] args) {
+        switch (method) {
+            case "getMinHeight":
+                return minHeight;
+            case "getMaxHeight":
+                return maxHeight;
+            case "getType":
+                return getType((int) args[0], (int) args[1], (int) args[2]);
+            case "setBlock":
+                if (args[3] instanceof Material material) {
+                    setBlock((int) args[0], (int) args[1], (int) args[2], material);
+                    return null;
+                }
+                return TestStandIn.UNSUPPORTED;
+            case "setRegion":
+                if (args[6] instanceof Material material) {
+                    setRegion((int) args[0], (int) args[1], (int) args[2], (int) args[3], (int) args[4], (int) args[5], material);
+                    return null;
+                }
+                return TestStandIn.UNSUPPORTED;
+            default:
+                return TestStandIn.UNSUPPORTED;
+        }
+    }
+}
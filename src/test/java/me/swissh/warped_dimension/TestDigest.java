@@ -0,0 +1,125 @@
+package me.swissh.warped_dimension;
+
+import org.bukkit.Material;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 64-bit FNV-1a over a byte stream. Blocks are fed in as the UTF-8 bytes of their material
+ * names, which stay stable across server versions unlike ordinals.
+ */
+final class TestDigest {
+
+    private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+    private static final byte[][] MATERIAL_NAMES = new byte[Material.values().length][];
+
+    static {
+        for (Material material : Material.values()) {
+            MATERIAL_NAMES[material.ordinal()] = material.name().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    private long hash = OFFSET_BASIS;
+
+    TestDigest addByte(int value) {
+        hash = (hash ^ (value & 0xFF)) * PRIME;
+        return this;
+    }
+
+    TestDigest addInt(int value) {
+        addByte(value >>> 24);
+        addByte(value >>> 16);
+        addByte(value >>> 8);
+        return addByte(value);
+    }
+
+    TestDigest addLong(long value) {
+        addInt((int) (value >>> 32));
+        return addInt((int) value);
+    }
+
+    /**
+     * The material's name followed by a zero byte
+     */
+    TestDigest addMaterial(Material material) {
+        for (byte b : MATERIAL_NAMES[material.ordinal()]) {
+            addByte(b);
+        }
+        return addByte(0);
+    }
+
+    TestDigest addString(String value) {
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            addByte(b);
+        }
+        return addByte(0);
+    }
+
+    long get() {
+        return hash;
+    }
+
+    /**
+     * Hash of a generated chunk: every column bottom to top as runs of material and length,
+     * then the chunk's biome type and the biome noise sampled once per 4x4 column. The noise
+     * is rounded to 9 decimals, so last-bit differences between JVMs' Math.sin don't count.
+     */
+    static long terrain(TestWorld world, int chunkX, int chunkZ) {
+        TestChunkData chunk = world.getChunk(chunkX, chunkZ);
+        TestDigest digest = new TestDigest();
+        for (int x = 0; x < 16; x++) {
+            for (int z = 0; z < 16; z++) {
+                Material run = chunk.getType(x, chunk.getMinHeight(), z);
+                int length = 0;
+                for (int y = chunk.getMinHeight(); y < chunk.getMaxHeight(); y++) {
+                    Material type = chunk.getType(x, y, z);
+                    if (type != run) {
+                        digest.addMaterial(run).addInt(length);
+                        run = type;
+                        length = 0;
+                    }
+                    length++;
+                }
+                digest.addMaterial(run).addInt(length);
+            }
+        }
+
+        digest.addString(WarpedBiomeCache.forSeed(world.getSeed()).getChunkBiome(chunkX, chunkZ).name());
+        WarpedBiomeProvider biomeProvider = new WarpedBiomeProvider();
+        for (int x = 0; x < 16; x += 4) {
+            for (int z = 0; z < 16; z += 4) {
+                double noise = biomeProvider.getBiomeNoise(chunkX * 16 + x, chunkZ * 16 + z, world.getSeed());
+                digest.addLong(Math.round(noise * 1e9));
+            }
+        }
+        return digest.get();
+    }
+
+    /**
+     * Hash of what populating a region changed: the position and new material of every block
+     * that differs from the generated terrain, in a fixed order
+     */
+    static long population(TestWorld world, TestLimitedRegion region) {
+        TestDigest digest = new TestDigest();
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dz = -1; dz <= 1; dz++) {
+                int chunkX = region.getCenterChunkX() + dx;
+                int chunkZ = region.getCenterChunkZ() + dz;
+                TestChunkData before = world.getChunk(chunkX, chunkZ);
+                TestChunkData after = region.getChunk(dx, dz);
+                for (int y = after.getMinHeight(); y < after.getMaxHeight(); y++) {
+                    for (int x = 0; x < 16; x++) {
+                        for (int z = 0; z < 16; z++) {
+                            Material type = after.getType(x, y, z);
+                            if (type != before.getType(x, y, z)) {
+                                digest.addInt(chunkX * 16 + x).addInt(y).addInt(chunkZ * 16 + z).addMaterial(type);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return digest.get();
+    }
+}
@@ -0,0 +1,115 @@
+package me.swissh.warped_dimension;
+
+import org.bukkit.Material;
+import org.bukkit.generator.LimitedRegion;
+
+/**
+ * Stand-in for the server's LimitedRegion: the chunk being populated plus a one chunk
+ * buffer around it, backed by 3x3 chunks of array data
+ */
+class TestLimitedRegion {
+
+    static final int BUFFER = 16;
+
+    private final int centerChunkX;
+    private final int centerChunkZ;
+    private final int minHeight;
+    private final int maxHeight;
+    // [dx + 1][dz + 1] around the center chunk
+    private final TestChunkData[][] chunks;
+    private final LimitedRegion region;
+
+    TestLimitedRegion(int centerChunkX, int centerChunkZ, TestChunkData[][] chunks) {
+        this.centerChunkX = centerChunkX;
+        this.centerChunkZ = centerChunkZ;
+        this.minHeight = chunks[1][1].getMinHeight();
+        this.maxHeight = chunks[1][1].getMaxHeight();
+        this.chunks = chunks;
+        this.region = TestStandIn.create(LimitedRegion.class,
+            "TestLimitedRegion(" + centerChunkX + ", " + centerChunkZ + ")", this::invoke);
+    }
+
+    /**
+     * The LimitedRegion view handed to populators
+     */
+    LimitedRegion asLimitedRegion() {
+        return region;
+    }
+
+    /**
+     * One of the 3x3 chunks, dx and dz from -1 to 1
+     */
+    TestChunkData getChunk(int dx, int dz) {
+        return chunks[dx + 1][dz + 1];
+    }
+
+    int getCenterChunkX() {
+        return centerChunkX;
+    }
+
+    int getCenterChunkZ() {
+        return centerChunkZ;
+    }
+
+    boolean isInRegion(int x, int y, int z) {
+        int minX = centerChunkX * 16 - BUFFER;
+        int minZ = centerChunkZ * 16 - BUFFER;
+        return x >= minX && x < minX + 16 + BUFFER * 2
+            && z >= minZ && z < minZ + 16 + BUFFER * 2
+            && y >= minHeight && y < maxHeight;
+    }
+
+    Material getType(int x, int y, int z) {
+        checkInRegion(x, y, z);
+        return chunkAt(x, z).getType(x & 15, y, z & 15);
+    }
+
+    void setType(int x, int y, int z, Material material) {
+        checkInRegion(x, y, z);
+        chunkAt(x, z).setBlock(x & 15, y, z & 15, material);
+    }
+
+    private TestChunkData chunkAt(int x, int z) {
+        return getChunk((x >> 4) - centerChunkX, (z >> 4) - centerChunkZ);
+    }
+
+    private void checkInRegion(int x, int y, int z) {
+        // The server rejects positions outside the region the same way
+        if (!isInRegion(x, y, z)) {
+            throw new IllegalArgumentException("Coordinates " + x + ", " + y + ", " + z + " are not in the region");
+        }
+    }
+
+    private Object invoke(String method, Object[] args) {
+        switch (method) {
+            case "getBuffer":
+                return BUFFER;
+            case "getCenterChunkX":
+                return centerChunkX;
+            case "getCenterChunkZ":
+                return centerChunkZ;
+            case "getCenterBlockX":
+                return centerChunkX * 16 + 8;
+            case "getCenterBlockZ":
+                return centerChunkZ * 16 + 8;
+            case "isInRegion":
+                if (args.length == 3) {
+                    return isInRegion((int) args[0], (int) args[1], (int) args[2]);
+                }
+                return TestStandIn.UNSUPPORTED;
+            case "getType":
+                if (args.length == 3) {
+                    return getType((int) args[0], (int) args[1], (int) args[2]);
+                }
+                return TestStandIn.UNSUPPORTED;
+            case "setType":
+                if (args.length == 4) {
+                    setType((int) args[0], (int) args[1], (int) args[2], (Material) args[3]);
+                    return null;
+                }
+                return TestStandIn.UNSUPPORTED;
+            default:
+                return TestStandIn.UNSUPPORTED;
+        }
+    }
+}
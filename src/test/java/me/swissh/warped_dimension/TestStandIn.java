@@ -0,0 +1,54 @@
+package me.swissh.warped_dimension;
+
+import java.lang.reflect.Proxy;
+
+/**
+ * Builds stand-ins for server interfaces from a handler that only knows the methods the
+ * plugin calls. Every other method throws, so a test fails loudly as soon as the code under
+ * test starts depending on something a stand-in does not model.
+ */
+final class TestStandIn {
+
+    /**
+     * Returned by a handler for methods it does not implement
+     */
+    static final Object UNSUPPORTED = new Object();
+
+    interface Handler {
+        Object invoke(String method, Object[] args);
+    }
+
+    private TestStandIn() {
+    }
+
+    static <T> T create(Class<T> type, String description, Handler handler) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (self, method, args) -> {
+            switch (method.getName()) {
+                case "toString":
+                    if (method.getParameterCount() == 0) {
+                        return description;
+                    }
+                    break;
+                case "hashCode":
+                    if (method.getParameterCount() == 0) {
+                        return System.identityHashCode(self);
+                    }
+                    break;
+                case "equals":
+                    if (method.getParameterCount() == 1) {
+                        return self == args[0];
+                    }
+                    break;
+                default:
+                    break;
+            }
+
+            Object result = handler.invoke(method.getName(), args == null ? new Object[0] : args);
+            if (result == UNSUPPORTED) {
+                throw new UnsupportedOperationException(description + " does not support " + method);
+            }
+            return result;
+        });
+        return type.cast(proxy);
+    }
+}
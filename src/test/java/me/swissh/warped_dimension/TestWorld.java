@@ -0,0 +1,135 @@
+package me.swissh.warped_dimension;
+
+import org.bukkit.Material;
+import org.bukkit.generator.BlockPopulator;
+import org.bukkit.generator.WorldInfo;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Headless world generation. Synthetic amplified-style terrain stands in for the server's
+ * noise pass, then the plugin's own surface and bedrock passes and populators run on
+ * array-backed chunks. Generated chunks are kept and copied into every populated region,
+ * so a chunk is populated from the same terrain whatever the order or thread.
+ */
+class TestWorld {
+
+    private final long seed;
+    private final WorldInfo worldInfo;
+    private final WarpedWorldGenerator generator;
+    private final Map<Long, TestChunkData> generated = new ConcurrentHashMap<>();
+
+    TestWorld(long seed) {
+        this.seed = seed;
+        this.worldInfo = TestWorldInfo.create(seed);
+        this.generator = new WarpedWorldGenerator(Logger.getLogger("TestWorld"), false, true);
+    }
+
+    long getSeed() {
+        return seed;
+    }
+
+    WorldInfo getWorldInfo() {
+        return worldInfo;
+    }
+
+    /**
+     * The composite populator the generator registers by default
+     */
+    BlockPopulator createPipeline() {
+        return new WarpedPopulatorPipeline(Logger.getLogger("TestWorld"), WarpedWorldGenerator.createFeatures());
+    }
+
+    /**
+     * Generated terrain of a chunk before population. Shared, so it must not be modified.
+     */
+    TestChunkData getChunk(int chunkX, int chunkZ) {
+        return generated.computeIfAbsent(WarpedCoords.chunkKey(chunkX, chunkZ), key -> generate(chunkX, chunkZ));
+    }
+
+    /**
+     * Run the noise, surface and bedrock passes for a chunk on new chunk data
+     */
+    TestChunkData generate(int chunkX, int chunkZ) {
+        TestChunkData chunk = new TestChunkData(worldInfo.getMinHeight(), worldInfo.getMaxHeight());
+        Random random = new Random(seed ^ ((long) chunkX << 32) ^ (chunkZ & 0xFFFFFFFFL));
+        fillTerrain(chunk, chunkX, chunkZ, random);
+        generator.generateNoise(worldInfo, random, chunkX, chunkZ, chunk.asChunkData());
+        generator.generateSurface(worldInfo, random, chunkX, chunkZ, chunk.asChunkData());
+        generator.generateBedrock(worldInfo, random, chunkX, chunkZ, chunk.asChunkData());
+        return chunk;
+    }
+
+    /**
+     * A chunk and its neighbours as a region, with copies of their generated terrain
+     */
+    TestLimitedRegion createRegion(int chunkX, int chunkZ) {
+        TestChunkData[][] chunks = new TestChunkData[3][3];
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dz = -1; dz <= 1; dz++) {
+                chunks[dx + 1][dz + 1] = getChunk(chunkX + dx, chunkZ + dz).copy();
+            }
+        }
+        return new TestLimitedRegion(chunkX, chunkZ, chunks);
+    }
+
+    /**
+     * Populate a chunk's region with each populator in turn. Like the server, every
+     * populator gets its own Random seeded with the chunk's decoration seed.
+     */
+    TestLimitedRegion populate(int chunkX, int chunkZ, List<? extends BlockPopulator> populators) {
+        TestLimitedRegion region = createRegion(chunkX, chunkZ);
+        for (BlockPopulator populator : populators) {
+            populator.populate(worldInfo, newPopulatorRandom(chunkX, chunkZ), chunkX, chunkZ, region.asLimitedRegion());
+        }
+        return region;
+    }
+
+    Random newPopulatorRandom(int chunkX, int chunkZ) {
+        return new Random(WarpedChunkContext.decorationSeed(seed, chunkX, chunkZ));
+    }
+
+    /**
+     * Rough amplified terrain in place of the server's noise: deepslate and stone with a few
+     * granite and lava pockets, rolling tall hills of dirt topped with grass, and scattered
+     * trees and plants. Heights follow world coordinates so neighbouring chunks line up, and
+     * StrictMath keeps them identical on every JVM.
+     */
+    static void fillTerrain(TestChunkData chunk, int chunkX, int chunkZ, Random random) {
+        int minY = chunk.getMinHeight();
+        int maxY = chunk.getMaxHeight();
+        for (int x = 0; x < 16; x++) {
+            for (int z = 0; z < 16; z++) {
+                int worldX = chunkX * 16 + x;
+                int worldZ = chunkZ * 16 + z;
+                int height = Math.min(maxY - 12, 120 + (int) (60 * StrictMath.sin(worldX * 0.04) * StrictMath.cos(worldZ * 0.03)) + random.nextInt(4));
+
+                chunk.setRegion(x, minY, z, x + 1, 0, z + 1, Material.DEEPSLATE);
+                chunk.setRegion(x, 0, z, x + 1, height - 4, z + 1, Material.STONE);
+                chunk.setRegion(x, height - 4, z, x + 1, height - 1, z + 1, Material.DIRT);
+                chunk.setBlock(x, height - 1, z, Material.GRASS_BLOCK);
+
+                int pocket = random.nextInt(64);
+                if (pocket == 0) {
+                    chunk.setRegion(x, 20, z, x + 1, 24, z + 1, Material.GRANITE);
+                } else if (pocket == 1) {
+                    chunk.setBlock(x, -20, z, Material.LAVA);
+                }
+
+                int roll = random.nextInt(20);
+                if (roll == 0) {
+                    chunk.setRegion(x, height, z, x + 1, height + 5, z + 1, Material.OAK_LOG);
+                    chunk.setBlock(x, height + 5, z, Material.OAK_LEAVES);
+                } else if (roll < 4) {
+                    chunk.setBlock(x, height, z, Material.SHORT_GRASS);
+                } else if (roll == 4) {
+                    chunk.setBlock(x, height, z, Material.POPPY);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package me.swissh.warped_dimension;
+
+import org.bukkit.generator.WorldInfo;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Stand-in for the warped world's WorldInfo with a fixed seed and amplified overworld heights
+ */
+final class TestWorldInfo {
+
+    static final String NAME = "warped_dimension";
+    static final int MIN_HEIGHT = -64;
+    static final int MAX_HEIGHT = 320;
+
+    private TestWorldInfo() {
+    }
+
+    static WorldInfo create(long seed) {
+        UUID uid = UUID.nameUUIDFromBytes((NAME + seed).getBytes(StandardCharsets.UTF_8));
+        return TestStandIn.create(WorldInfo.class, "TestWorldInfo(" + seed + ")", (method, args) -> {
+            switch (method) {
+                case "getName":
+                    return NAME;
+                case "getUID":
+                    return uid;
+                case "getSeed":
+                    return seed;
+                case "getMinHeight":
+                    return MIN_HEIGHT;
+                case "getMaxHeight":
+                    return MAX_HEIGHT;
+                default:
+                    return TestStandIn.UNSUPPORTED;
+            }
+        });
+    }
+}
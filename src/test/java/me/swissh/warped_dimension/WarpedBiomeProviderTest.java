@@ -0,0 +1,96 @@
+package me.swissh.warped_dimension;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Existing worlds keep their biomes only if the stateless jitter is exactly what the old
+ * per-call Random produced, and the shared provider must give the same answers on any
+ * number of worldgen threads
+ */
+class WarpedBiomeProviderTest {
+
+    private static final long[] SEEDS = { 0L, 1L, 42L, -8713456210937L, Long.MIN_VALUE, Long.MAX_VALUE };
+    private static final int THREADS = 16;
+    private static final int SIZE = 256; // Sampled columns per side
+
+    @Test
+    void jitterMatchesRandomNextDouble() {
+        long[] edgeKeys = { 0L, 1L, -1L, 0x5DEECE66DL, (1L << 48) - 1, 1L << 48, Long.MIN_VALUE, Long.MAX_VALUE };
+        for (long key : edgeKeys) {
+            assertEquals(new Random(key).nextDouble(), WarpedBiomeProvider.coordinateJitter(key), "Key " + key);
+        }
+
+        SplittableRandom keys = new SplittableRandom(3);
+        for (int i = 0; i < 1_000_000; i++) {
+            long key = keys.nextLong();
+            assertEquals(new Random(key).nextDouble(), WarpedBiomeProvider.coordinateJitter(key), "Key " + key);
+        }
+
+        // The keys getBiomeNoise actually uses
+        for (long seed : SEEDS) {
+            for (int x = -3000; x <= 3000; x += 37) {
+                for (int z = -3000; z <= 3000; z += 41) {
+                    long key = seed + x * 12345L + z * 67890L;
+                    assertEquals(new Random(key).nextDouble(), WarpedBiomeProvider.coordinateJitter(key), "Key " + key);
+                }
+            }
+        }
+    }
+
+    @Test
+    void sharedProviderIsThreadIndependent() throws Exception {
+        WarpedBiomeProvider provider = new WarpedBiomeProvider();
+        for (long seed : SEEDS) {
+            long[] expected = sample(new WarpedBiomeProvider(), seed, 0, 1);
+
+            // Every thread walks all columns on one shared provider, each from a different start
+            CountDownLatch start = new CountDownLatch(1);
+            ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            try {
+                List<Future<long[]>> results = new ArrayList<>();
+                for (int thread = 0; thread < THREADS; thread++) {
+                    int offset = thread * SIZE * SIZE / THREADS;
+                    int step = thread % 2 == 0 ? 1 : -1;
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        return sample(provider, seed, offset, step);
+                    }));
+                }
+                start.countDown();
+                for (Future<long[]> result : results) {
+                    assertArrayEquals(expected, result.get(), "Seed " + seed);
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Noise bits and biome type of every column, visited from offset in the given direction
+     */
+    private static long[] sample(WarpedBiomeProvider provider, long seed, int offset, int step) {
+        int count = SIZE * SIZE;
+        long[] samples = new long[count * 2];
+        for (int n = 0; n < count; n++) {
+            int i = Math.floorMod(offset + n * step, count);
+            int x = (i % SIZE - SIZE / 2) * 13;
+            int z = (i / SIZE - SIZE / 2) * 13;
+            samples[i * 2] = Double.doubleToLongBits(provider.getBiomeNoise(x, z, seed));
+            samples[i * 2 + 1] = provider.getWarpedBiomeType(x, z, seed).ordinal();
+        }
+        return samples;
+    }
+}
@@ -0,0 +1,156 @@
+package me.swissh.warped_dimension;
+
+import org.bukkit.Material;
+import org.bukkit.generator.WorldInfo;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * The remap tables must give the same result as the original chain of rules in
+ * generateSurface, for every Material in every biome
+ */
+class WarpedBlockRemapTest {
+
+    private static final long SEED = 42L;
+    private static final Material[] MATERIALS = Material.values();
+
+    @Test
+    void surfacePassMatchesOriginalRules() {
+        WorldInfo worldInfo = TestWorldInfo.create(SEED);
+        WarpedWorldGenerator generator = new WarpedWorldGenerator(Logger.getLogger("WarpedBlockRemapTest"), false, true);
+
+        for (WarpedBiomes biomeType : WarpedBiomes.values()) {
+            int[] chunk = findChunk(biomeType);
+
+            // Every Material many times over, so the sculk patchwork rolls are compared too
+            TestChunkData actual = new TestChunkData(TestWorldInfo.MIN_HEIGHT, TestWorldInfo.MAX_HEIGHT);
+            int i = 0;
+            for (int x = 0; x < 16; x++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int y = TestWorldInfo.MIN_HEIGHT; y < TestWorldInfo.MAX_HEIGHT; y++) {
+                        actual.setBlock(x, y, z, MATERIALS[i++ % MATERIALS.length]);
+                    }
+                }
+            }
+            TestChunkData expected = actual.copy();
+
+            generator.generateSurface(worldInfo, new Random(7), chunk[0], chunk[1], actual.asChunkData());
+            originalSurface(biomeType, new Random(7), expected);
+
+            for (int x = 0; x < 16; x++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int y = TestWorldInfo.MIN_HEIGHT; y < TestWorldInfo.MAX_HEIGHT; y++) {
+                        if (actual.getType(x, y, z) != expected.getType(x, y, z)) {
+                            fail(biomeType + " at " + x + ", " + y + ", " + z + ": expected "
+                                + expected.getType(x, y, z) + ", got " + actual.getType(x, y, z));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void tablesMatchOriginalRules() {
+        for (WarpedBiomes biomeType : WarpedBiomes.values()) {
+            Material[] table = WarpedBlockRemap.forBiome(biomeType);
+            assertEquals(MATERIALS.length, table.length);
+            for (Material block : MATERIALS) {
+                Material expected = block == Material.GRASS_BLOCK && biomeType == WarpedBiomes.SCULK_FOREST
+                    ? WarpedBlockRemap.PATCHWORK
+                    : originalRule(block, biomeType, null);
+                assertEquals(expected, table[block.ordinal()], block + " in " + biomeType);
+            }
+        }
+    }
+
+    private static int[] findChunk(WarpedBiomes biomeType) {
+        WarpedBiomeCache cache = WarpedBiomeCache.forSeed(SEED);
+        for (int radius = 0; radius < 1024; radius += 8) {
+            for (int chunkX = -radius; chunkX <= radius; chunkX += 8) {
+                for (int chunkZ = -radius; chunkZ <= radius; chunkZ += 8) {
+                    if (cache.getChunkBiome(chunkX, chunkZ) == biomeType) {
+                        return new int[] {chunkX, chunkZ};
+                    }
+                }
+            }
+        }
+        return fail("No " + biomeType + " chunk found for seed " + SEED);
+    }
+
+    /**
+     * The surface pass as it was before the remap tables
+     */
+    private static void originalSurface(WarpedBiomes biomeType, Random random, TestChunkData chunkData) {
+        for (int x = 0; x < 16; x++) {
+            for (int z = 0; z < 16; z++) {
+                for (int y = chunkData.getMinHeight(); y < chunkData.getMaxHeight(); y++) {
+                    Material replacement = originalRule(chunkData.getType(x, y, z), biomeType, random);
+                    if (replacement != null) {
+                        chunkData.setBlock(x, y, z, replacement);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The original chain of rules, returning null where the block was left alone.
+     * Sculk forest grass rolls on the random like the original loop did.
+     */
+    private static Material originalRule(Material block, WarpedBiomes biomeType, Random random) {
+        // Replace stone with amethyst block
+        if (block == Material.STONE || block == Material.DEEPSLATE ||
+            block == Material.GRANITE || block == Material.DIORITE ||
+            block == Material.ANDESITE || block == Material.TUFF) {
+            return Material.AMETHYST_BLOCK;
+        }
+        // Replace dirt with sculk
+        else if (block == Material.DIRT || block == Material.COARSE_DIRT ||
+                 block == Material.ROOTED_DIRT || block == Material.PODZOL) {
+            return Material.SCULK;
+        }
+        // Replace grass block with appropriate surface based on biome
+        else if (block == Material.GRASS_BLOCK) {
+            if (biomeType == WarpedBiomes.AMETHYST_FOREST) {
+                return Material.SCULK;
+            } else if (biomeType == WarpedBiomes.SCULK_FOREST) {
+                return random.nextDouble() < 0.6 ? Material.WARPED_NYLIUM : Material.SCULK;
+            } else {
+                return Material.WARPED_NYLIUM;
+            }
+        }
+        // Replace tall grass, ferns, etc. with warped roots
+        else if (block == Material.SHORT_GRASS || block == Material.TALL_GRASS ||
+                 block == Material.FERN || block == Material.LARGE_FERN ||
+                 block == Material.DEAD_BUSH || block == Material.DANDELION ||
+                 block == Material.POPPY || block == Material.BLUE_ORCHID ||
+                 block == Material.ALLIUM || block == Material.AZURE_BLUET ||
+                 block == Material.RED_TULIP || block == Material.ORANGE_TULIP ||
+                 block == Material.WHITE_TULIP || block == Material.PINK_TULIP ||
+                 block == Material.OXEYE_DAISY || block == Material.CORNFLOWER ||
+                 block == Material.LILY_OF_THE_VALLEY || block == Material.SUNFLOWER ||
+                 block == Material.LILAC || block == Material.ROSE_BUSH ||
+                 block == Material.PEONY) {
+            return Material.WARPED_ROOTS;
+        }
+        // Remove lava
+        else if (block == Material.LAVA) {
+            return Material.AIR;
+        }
+        // Replace tree leaves with warped wart blocks
+        else if (block.name().contains("LEAVES")) {
+            return Material.WARPED_WART_BLOCK;
+        }
+        // Replace tree logs with warped stems
+        else if (block.name().contains("LOG") || block.name().contains("WOOD")) {
+            return Material.WARPED_STEM;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,72 @@
+package me.swissh.warped_dimension;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Packed positions must round-trip over the whole range vanilla BlockPos.asLong covers,
+ * and the chunk keys derived from them must match the chunk the block is in
+ */
+class WarpedCoordsTest {
+
+    private static final int MAX_XZ = (1 << 25) - 1;
+    private static final int MIN_XZ = -(1 << 25);
+    private static final int MAX_Y = (1 << 11) - 1;
+    private static final int MIN_Y = -(1 << 11);
+
+    @Test
+    void packRoundTrips() {
+        int[] edgeXZ = { 0, 1, -1, 15, 16, -16, -17, 30_000_000, -30_000_000, MAX_XZ, MIN_XZ };
+        int[] edgeY = { 0, 1, -1, -64, 319, MAX_Y, MIN_Y };
+        for (int x : edgeXZ) {
+            for (int z : edgeXZ) {
+                for (int y : edgeY) {
+                    assertRoundTrip(x, y, z);
+                }
+            }
+        }
+
+        SplittableRandom random = new SplittableRandom(13);
+        for (int i = 0; i < 1_000_000; i++) {
+            assertRoundTrip(random.nextInt(MIN_XZ, MAX_XZ + 1), random.nextInt(MIN_Y, MAX_Y + 1), random.nextInt(MIN_XZ, MAX_XZ + 1));
+        }
+    }
+
+    @Test
+    void neighboursPackApart() {
+        // Each field borrows no bits from the others, even where the lower one wraps negative
+        for (int x = -17; x <= 16; x++) {
+            for (int z = -17; z <= 16; z++) {
+                long packed = WarpedCoords.pack(x, -1, z);
+                assertNotEquals(packed, WarpedCoords.pack(x + 1, -1, z));
+                assertNotEquals(packed, WarpedCoords.pack(x, 0, z));
+                assertNotEquals(packed, WarpedCoords.pack(x, -1, z + 1));
+            }
+        }
+    }
+
+    @Test
+    void chunkKeysAcrossBorders() {
+        int[] blocks = { -33, -32, -17, -16, -15, -1, 0, 1, 15, 16, 17, 31, 32 };
+        for (int x : blocks) {
+            for (int z : blocks) {
+                long packed = WarpedCoords.pack(x, 64, z);
+                long key = WarpedCoords.chunkKey(WarpedCoords.unpackX(packed) >> 4, WarpedCoords.unpackZ(packed) >> 4);
+                assertEquals(Math.floorDiv(x, 16), (int) (key >> 32), "Chunk x of " + x);
+                assertEquals(Math.floorDiv(z, 16), (int) key, "Chunk z of " + z);
+            }
+        }
+    }
+
+    private static void assertRoundTrip(int x, int y, int z) {
+        long packed = WarpedCoords.pack(x, y, z);
+        String position = x + ", " + y + ", " + z;
+        assertEquals(x, WarpedCoords.unpackX(packed), "X of " + position);
+        assertEquals(y, WarpedCoords.unpackY(packed), "Y of " + position);
+        assertEquals(z, WarpedCoords.unpackZ(packed), "Z of " + position);
+    }
+}
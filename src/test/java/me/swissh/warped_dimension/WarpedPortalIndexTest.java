@@ -0,0 +1,147 @@
+package me.swissh.warped_dimension;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The chunk grid must answer nearest and within queries exactly like a scan of every
+ * portal, with vertical distance weighted down by 3
+ */
+class WarpedPortalIndexTest {
+
+    private static final int SPREAD = 80; // Blocks around the origin, so portals sit on both sides of chunk borders
+
+    @Test
+    void queriesMatchBruteForce() {
+        SplittableRandom random = new SplittableRandom(5);
+        WarpedPortalIndex index = new WarpedPortalIndex();
+        List<WarpedPortal> portals = new ArrayList<>();
+        for (int id = 1; id <= 400; id++) {
+            WarpedPortal portal = new WarpedPortal(id, WarpedCoords.pack(random.nextInt(-SPREAD, SPREAD),
+                random.nextInt(-64, 320), random.nextInt(-SPREAD, SPREAD)), random.nextInt(4), 0);
+            portals.add(portal);
+            index.add(portal);
+        }
+        assertMatchesBruteForce(index, portals, random);
+
+        // Half of them removed again
+        for (int i = portals.size() - 1; i >= 0; i -= 2) {
+            assertTrue(index.remove(portals.remove(i)));
+        }
+        assertEquals(portals.size(), index.size());
+        assertMatchesBruteForce(index, portals, random);
+    }
+
+    @Test
+    void searchesReachAcrossChunkBorders() {
+        // One portal on each side of the borders around chunk 0, 0 and chunk -1, -1
+        int[] edges = { -17, -16, -1, 0, 15, 16 };
+        WarpedPortalIndex index = new WarpedPortalIndex();
+        List<WarpedPortal> portals = new ArrayList<>();
+        int id = 1;
+        for (int x : edges) {
+            for (int z : edges) {
+                WarpedPortal portal = new WarpedPortal(id++, WarpedCoords.pack(x, 64, z), 0, 0);
+                portals.add(portal);
+                index.add(portal);
+            }
+        }
+
+        for (WarpedPortal portal : portals) {
+            // Found from a block away on every side, which is often the next chunk
+            for (int[] offset : new int[][] {{1, 0}, {-1, 0}, {0, 1}, {0, -1}}) {
+                double x = portal.getX() + offset[0];
+                double z = portal.getZ() + offset[1];
+                assertSame(portal, index.get(portal.getPosition(), portal.getOffsets()));
+                assertEquals(bruteForceWithin(portals, x, 64, z, 1.0), ids(index.findWithin(x, 64, z, 1.0)),
+                    "Within a block of " + x + ", " + z);
+            }
+        }
+    }
+
+    @Test
+    void verticalDistanceCountsAThird() {
+        WarpedPortalIndex index = new WarpedPortalIndex();
+        WarpedPortal above = new WarpedPortal(1, WarpedCoords.pack(0, 73, 0), 0, 0); // 9 up counts as 3
+        WarpedPortal beside = new WarpedPortal(2, WarpedCoords.pack(4, 64, 0), 0, 0);
+        index.add(above);
+        index.add(beside);
+
+        assertSame(above, index.findNearest(0, 64, 0, 3.5));
+        assertNull(index.findNearest(0, 64, 0, 2.9));
+        assertEquals(List.of(above), index.findWithin(0, 64, 0, 3.0));
+        assertSame(beside, index.findNearest(4, 70, 0, 10)); // 6 up counts as 2, 4 across as 4
+        assertNull(index.get(above.getPosition(), WarpedPortal.HALF_X));
+    }
+
+    private static void assertMatchesBruteForce(WarpedPortalIndex index, List<WarpedPortal> portals, SplittableRandom random) {
+        for (int i = 0; i < 5000; i++) {
+            double x = random.nextDouble(-SPREAD - 20, SPREAD + 20);
+            double y = random.nextDouble(-80, 340);
+            double z = random.nextDouble(-SPREAD - 20, SPREAD + 20);
+            double radius = random.nextDouble(0, 40);
+            String query = x + ", " + y + ", " + z + " radius " + radius;
+
+            assertEquals(bruteForceWithin(portals, x, y, z, radius), ids(index.findWithin(x, y, z, radius)), "Within " + query);
+
+            // Ties may resolve to either portal, so the distance is compared
+            double nearest = bruteForceNearest(portals, x, y, z, radius);
+            WarpedPortal found = index.findNearest(x, y, z, radius);
+            if (Double.isNaN(nearest)) {
+                assertNull(found, "Nearest " + query);
+            } else {
+                assertNotNull(found, "Nearest " + query);
+                assertEquals(nearest, distanceSquared(found, x, y, z), "Nearest " + query);
+            }
+        }
+    }
+
+    private static TreeSet<Integer> bruteForceWithin(List<WarpedPortal> portals, double x, double y, double z, double radius) {
+        TreeSet<Integer> found = new TreeSet<>();
+        for (WarpedPortal portal : portals) {
+            if (distanceSquared(portal, x, y, z) <= radius * radius) {
+                found.add(portal.getId());
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Squared distance to the closest portal within the radius, or NaN if there is none
+     */
+    private static double bruteForceNearest(List<WarpedPortal> portals, double x, double y, double z, double radius) {
+        double nearest = Double.NaN;
+        for (WarpedPortal portal : portals) {
+            double distance = distanceSquared(portal, x, y, z);
+            if (distance <= radius * radius && !(distance >= nearest)) {
+                nearest = distance;
+            }
+        }
+        return nearest;
+    }
+
+    private static double distanceSquared(WarpedPortal portal, double x, double y, double z) {
+        double dx = WarpedCoords.unpackX(portal.getPosition()) + ((portal.getOffsets() & WarpedPortal.HALF_X) != 0 ? 0.5 : 0) - x;
+        double dy = (WarpedCoords.unpackY(portal.getPosition()) - y) / 3;
+        double dz = WarpedCoords.unpackZ(portal.getPosition()) + ((portal.getOffsets() & WarpedPortal.HALF_Z) != 0 ? 0.5 : 0) - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private static TreeSet<Integer> ids(List<WarpedPortal> portals) {
+        TreeSet<Integer> ids = new TreeSet<>();
+        for (WarpedPortal portal : portals) {
+            ids.add(portal.getId());
+        }
+        return ids;
+    }
+}
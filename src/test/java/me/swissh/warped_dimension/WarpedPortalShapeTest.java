@@ -0,0 +1,153 @@
+package me.swissh.warped_dimension;
+
+import org.bukkit.Axis;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Frames are found from any of their blocks in both orientations, only when whole,
+ * rectangular and within the size limits
+ */
+class WarpedPortalShapeTest {
+
+    private static final int X = -40;
+    private static final int Y = 70;
+    private static final int Z = 25;
+
+    @Test
+    void findsSmallestFrame() {
+        TestBlockWorld world = new TestBlockWorld();
+        world.setFrame(X, Y, Z, Axis.X, WarpedPortalShape.MIN_WIDTH, WarpedPortalShape.MIN_HEIGHT);
+
+        WarpedPortalShape shape = WarpedPortalShape.find(world.getBlock(X, Y - 1, Z));
+        assertShape(shape, Axis.X, 2, 3);
+        List<Block> interior = shape.getInterior();
+        assertEquals(6, interior.size());
+        assertEquals(List.of("Block(-40, 70, 25)", "Block(-40, 71, 25)", "Block(-40, 72, 25)",
+            "Block(-39, 70, 25)", "Block(-39, 71, 25)", "Block(-39, 72, 25)"),
+            interior.stream().map(Object::toString).toList());
+
+        // One smaller either way is not a portal
+        assertNull(frameAt(Axis.X, 1, 3));
+        assertNull(frameAt(Axis.X, 2, 2));
+    }
+
+    @Test
+    void findsLargestFrame() {
+        int max = WarpedPortalShape.MAX_SIZE;
+        assertShape(frameAt(Axis.X, max, max), Axis.X, max, max);
+        assertNull(frameAt(Axis.X, max + 1, 3));
+        assertNull(frameAt(Axis.X, 3, max + 1));
+        assertNull(frameAt(Axis.Z, max + 1, max + 1));
+    }
+
+    @Test
+    void findsFrameAlongZ() {
+        assertShape(frameAt(Axis.Z, 3, 4), Axis.Z, 3, 4);
+
+        TestBlockWorld world = new TestBlockWorld();
+        world.setFrame(X, Y, Z, Axis.Z, 2, 3);
+        for (int dz = 0; dz < 2; dz++) {
+            for (int dy = 0; dy < 3; dy++) {
+                world.setPortal(X, Y + dy, Z + dz, Axis.Z);
+            }
+        }
+        assertShape(WarpedPortalShape.fromPortalBlock(world.getBlock(X, Y + 2, Z + 1)), Axis.Z, 2, 3);
+        // The wrong axis sees no frame
+        assertNull(WarpedPortalShape.fromInterior(world.getBlock(X, Y, Z), Axis.X));
+    }
+
+    @Test
+    void rejectsMissingCorner() {
+        for (int[] corner : new int[][] {{-1, -1}, {3, -1}, {-1, 4}, {3, 4}}) {
+            TestBlockWorld world = new TestBlockWorld();
+            world.setFrame(X, Y, Z, Axis.X, 3, 4);
+            world.setType(X + corner[0], Y + corner[1], Z, Material.AIR);
+            assertNull(WarpedPortalShape.find(world.getBlock(X + 1, Y - 1, Z)), "Corner " + corner[0] + ", " + corner[1] + " missing");
+        }
+    }
+
+    @Test
+    void rejectsForeignBorderBlock() {
+        TestBlockWorld world = new TestBlockWorld();
+        world.setFrame(X, Y, Z, Axis.X, 3, 4);
+        world.setType(X + 3, Y + 2, Z, Material.STONE);
+        assertNull(WarpedPortalShape.find(world.getBlock(X + 1, Y - 1, Z)));
+        assertNull(WarpedPortalShape.fromInterior(world.getBlock(X, Y, Z), Axis.X));
+    }
+
+    @Test
+    void rejectsInteriorThatIsNotARectangle() {
+        // Deepslate filling one corner of the interior leaves an L shape
+        TestBlockWorld world = new TestBlockWorld();
+        world.setFrame(X, Y, Z, Axis.X, 3, 4);
+        world.setType(X + 2, Y + 3, Z, Material.REINFORCED_DEEPSLATE);
+        assertNull(WarpedPortalShape.find(world.getBlock(X + 1, Y - 1, Z)));
+        assertNull(WarpedPortalShape.fromInterior(world.getBlock(X, Y, Z), Axis.X));
+    }
+
+    @Test
+    void startsFromOutsideTheFrame() {
+        TestBlockWorld world = new TestBlockWorld();
+        world.setFrame(X, Y, Z, Axis.X, 3, 4);
+
+        // The open air above the top row is not an interior, the frame is still found below it
+        assertNull(WarpedPortalShape.fromInterior(world.getBlock(X + 1, Y + 5, Z), Axis.X));
+        assertShape(WarpedPortalShape.find(world.getBlock(X + 1, Y + 4, Z)), Axis.X, 3, 4);
+        // And from the side column and a corner
+        assertShape(WarpedPortalShape.find(world.getBlock(X - 1, Y + 2, Z)), Axis.X, 3, 4);
+        assertNull(WarpedPortalShape.find(world.getBlock(X - 1, Y - 1, Z)));
+    }
+
+    @Test
+    void centerMatchesBuiltPortal() {
+        // buildLinkedPortal builds the frame from its bottom corner and registers the center at +2, +1, +0.5
+        int[][] sites = {{X, Y, Z}, {0, -60, 0}, {-1, 64, -1}, {1000, 200, -1000}};
+        for (int[] site : sites) {
+            TestBlockWorld world = new TestBlockWorld();
+            int width = WarpedPortalSearch.BUILD_WIDTH;
+            int height = WarpedPortalSearch.BUILD_HEIGHT;
+            world.setFrame(site[0] + 1, site[1] + 1, site[2], Axis.X, width - 2, height - 2);
+            for (int x = 1; x < width - 1; x++) {
+                for (int y = 1; y < height - 1; y++) {
+                    world.setPortal(site[0] + x, site[1] + y, site[2], Axis.X);
+                }
+            }
+
+            Location expected = new Location(world.asWorld(), site[0] + width / 2.0, site[1] + 1, site[2] + 0.5);
+            // The same center whichever portal block it is found from
+            for (int x = 1; x < width - 1; x++) {
+                for (int y = 1; y < height - 1; y++) {
+                    Location center = WarpedPortalShape.fromPortalBlock(world.getBlock(site[0] + x, site[1] + y, site[2])).getCenter();
+                    assertEquals(expected.getX(), center.getX(), "Center x of " + site[0] + ", " + site[1] + ", " + site[2]);
+                    assertEquals(expected.getY(), center.getY(), "Center y of " + site[0] + ", " + site[1] + ", " + site[2]);
+                    assertEquals(expected.getZ(), center.getZ(), "Center z of " + site[0] + ", " + site[1] + ", " + site[2]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Find a frame of the given interior size from its bottom row
+     */
+    private static WarpedPortalShape frameAt(Axis axis, int width, int height) {
+        TestBlockWorld world = new TestBlockWorld();
+        world.setFrame(X, Y, Z, axis, width, height);
+        return WarpedPortalShape.find(world.getBlock(X, Y - 1, Z));
+    }
+
+    private static void assertShape(WarpedPortalShape shape, Axis axis, int width, int height) {
+        assertNotNull(shape, "No " + width + "x" + height + " frame found");
+        assertEquals(axis, shape.getAxis());
+        assertEquals(width, shape.getWidth());
+        assertEquals(height, shape.getHeight());
+    }
+}
@@ -0,0 +1,232 @@
+package me.swissh.warped_dimension;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The portal store must give back exactly what was recorded, across torn log writes,
+ * a crash between moving the snapshot and truncating the log, and compaction
+ */
+class WarpedPortalStoreTest {
+
+    private static final String OVERWORLD = "world";
+    private static final String WARPED = "warped_dimension";
+
+    @TempDir
+    Path folder;
+
+    @Test
+    void replaysRecordedPortals() {
+        Expected expected = new Expected();
+        WarpedPortalStore store = open(expected);
+        WarpedPortal first = expected.put(store, OVERWORLD, store.nextId(), 10, 64, -20);
+        WarpedPortal second = expected.put(store, WARPED, store.nextId(), -300, -10, 4000);
+        expected.put(store, OVERWORLD, store.nextId(), -1, 319, -1);
+        expected.link(store, OVERWORLD, first, WARPED, second);
+        expected.remove(store, OVERWORLD, expected.put(store, OVERWORLD, store.nextId(), 0, 0, 0));
+        store.close();
+
+        expected.assertLoads(folder);
+    }
+
+    @Test
+    void dropsTornLastRecord() throws IOException {
+        Expected expected = new Expected();
+        WarpedPortalStore store = open(expected);
+        expected.put(store, OVERWORLD, store.nextId(), 1, 2, 3);
+        expected.put(store, WARPED, store.nextId(), 4, 5, 6);
+        store.close();
+        long complete = Files.size(log());
+
+        // Every cut inside the next put record loses only that record
+        store = open(expected);
+        new Expected().put(store, WARPED, store.nextId(), 7, 8, 9);
+        store.close();
+        long full = Files.size(log());
+        byte[] written = Files.readAllBytes(log());
+        for (long cut = complete + 1; cut < full; cut++) {
+            try (FileChannel channel = FileChannel.open(log(), StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.wrap(written));
+                channel.truncate(cut);
+            }
+            expected.assertLoads(folder);
+            assertEquals(complete, Files.size(log()), "Log length after a cut at " + cut);
+        }
+
+        // The log carries on from the last complete record
+        store = open(expected);
+        expected.put(store, OVERWORLD, store.nextId(), 10, 11, 12);
+        store.close();
+        expected.assertLoads(folder);
+    }
+
+    @Test
+    void replaysOldLogOverNewSnapshot() throws IOException {
+        Expected expected = new Expected();
+        WarpedPortalStore store = open(expected);
+        List<WarpedPortal> portals = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            portals.add(expected.put(store, i % 3 == 0 ? WARPED : OVERWORLD, store.nextId(), i * 100, i, -i * 100));
+        }
+        expected.link(store, WARPED, portals.get(0), OVERWORLD, portals.get(1));
+        expected.remove(store, OVERWORLD, portals.get(4));
+        expected.remove(store, WARPED, portals.get(18)); // Every third is in the warped world
+        expected.put(store, OVERWORLD, portals.get(2).getId(), 5, 5, 5); // Moved
+        store.close();
+        byte[] oldLog = Files.readAllBytes(log());
+
+        // Worlds in the opposite order to the log, so their ids differ
+        store = open(expected);
+        store.compact(expected.toRegistry(WARPED, OVERWORLD));
+        store.close();
+        assertEquals(0, Files.size(log()));
+        expected.assertLoads(folder);
+
+        // Died after the snapshot was moved, before the log was truncated
+        Files.write(log(), oldLog);
+        expected.assertLoads(folder);
+    }
+
+    @Test
+    void renumbersWorldsAfterCompaction() {
+        Expected expected = new Expected();
+        WarpedPortalStore store = open(expected);
+        WarpedPortal first = expected.put(store, OVERWORLD, store.nextId(), 1, 1, 1);
+        expected.put(store, WARPED, store.nextId(), 2, 2, 2);
+
+        // Records after compaction in the same run start a new log with new world ids
+        store.compact(expected.toRegistry(WARPED, OVERWORLD));
+        expected.put(store, WARPED, store.nextId(), 3, 3, 3);
+        expected.put(store, "the_end", store.nextId(), 4, 4, 4);
+        expected.remove(store, OVERWORLD, first);
+        store.close();
+        expected.assertLoads(folder);
+
+        // And again on the next run, continuing that log
+        store = open(expected);
+        expected.put(store, OVERWORLD, store.nextId(), 5, 5, 5);
+        expected.put(store, "the_end", store.nextId(), 6, 6, 6);
+        store.close();
+        expected.assertLoads(folder);
+    }
+
+    @Test
+    void neverReusesIds() {
+        Expected expected = new Expected();
+        int highest = 0;
+        for (int run = 0; run < 6; run++) {
+            WarpedPortalStore store = open(expected);
+            for (int i = 0; i < 5; i++) {
+                int id = store.nextId();
+                assertTrue(id > highest, "Id " + id + " handed out again in run " + run);
+                highest = id;
+                expected.put(store, OVERWORLD, id, run, i, 0);
+            }
+
+            // Remove the newest portals, the highest ids, and compact on every other run
+            for (WarpedPortal portal : expected.getPortals(OVERWORLD)) {
+                if (portal.getId() > highest - 2) {
+                    expected.remove(store, OVERWORLD, portal);
+                }
+            }
+            if (run % 2 == 1) {
+                store.compact(expected.toRegistry(OVERWORLD));
+            }
+            store.close();
+        }
+        expected.assertLoads(folder);
+    }
+
+    private WarpedPortalStore open(Expected expected) {
+        WarpedPortalStore store = new WarpedPortalStore(folder.toFile(), Logger.getLogger("WarpedPortalStoreTest"));
+        assertEquals(expected.describe(), describe(store.load()));
+        return store;
+    }
+
+    private Path log() {
+        return folder.resolve("portals.log");
+    }
+
+    private static Map<String, Map<Integer, String>> describe(Map<String, List<WarpedPortal>> portals) {
+        Map<String, Map<Integer, String>> description = new TreeMap<>();
+        for (Map.Entry<String, List<WarpedPortal>> entry : portals.entrySet()) {
+            Map<Integer, String> world = new TreeMap<>();
+            for (WarpedPortal portal : entry.getValue()) {
+                world.put(portal.getId(), portal.getBlockX() + " " + portal.getBlockY() + " " + portal.getBlockZ()
+                    + " offsets " + portal.getOffsets() + " link " + portal.getLinkId());
+            }
+            if (!world.isEmpty()) {
+                description.put(entry.getKey(), world);
+            }
+        }
+        return description;
+    }
+
+    /**
+     * What the store should hold, updated alongside every record written
+     */
+    private static class Expected {
+        private final Map<String, Map<Integer, WarpedPortal>> worlds = new LinkedHashMap<>();
+
+        WarpedPortal put(WarpedPortalStore store, String worldName, int id, int x, int y, int z) {
+            WarpedPortal portal = new WarpedPortal(id, WarpedCoords.pack(x, y, z), id % 4, 0);
+            worlds.computeIfAbsent(worldName, k -> new LinkedHashMap<>()).put(id, portal);
+            store.put(worldName, portal);
+            return portal;
+        }
+
+        void link(WarpedPortalStore store, String firstWorld, WarpedPortal first, String secondWorld, WarpedPortal second) {
+            first.setLinkId(second.getId());
+            second.setLinkId(first.getId());
+            store.put(firstWorld, first);
+            store.put(secondWorld, second);
+        }
+
+        void remove(WarpedPortalStore store, String worldName, WarpedPortal portal) {
+            worlds.get(worldName).remove(portal.getId());
+            store.remove(worldName, portal);
+        }
+
+        List<WarpedPortal> getPortals(String worldName) {
+            return new ArrayList<>(worlds.getOrDefault(worldName, Map.of()).values());
+        }
+
+        Map<String, List<WarpedPortal>> toRegistry(String... worldNames) {
+            Map<String, List<WarpedPortal>> registry = new LinkedHashMap<>();
+            for (String worldName : worldNames) {
+                registry.put(worldName, getPortals(worldName));
+            }
+            return registry;
+        }
+
+        Map<String, Map<Integer, String>> describe() {
+            Map<String, List<WarpedPortal>> portals = new LinkedHashMap<>();
+            for (String worldName : worlds.keySet()) {
+                portals.put(worldName, getPortals(worldName));
+            }
+            return WarpedPortalStoreTest.describe(portals);
+        }
+
+        void assertLoads(Path folder) {
+            WarpedPortalStore store = new WarpedPortalStore(folder.toFile(), Logger.getLogger("WarpedPortalStoreTest"));
+            assertEquals(describe(), WarpedPortalStoreTest.describe(store.load()));
+            store.close();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package me.swissh.warped_dimension;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * /warped ruins must point at exactly the chunks where the populator builds ruins
+ */
+class WarpedRuinsPlacementTest {
+
+    private static final long[] SEEDS = { 1L, 42L, -8713456210937L };
+    private static final int REGION_RADIUS = 2;
+
+    @Test
+    void ruinsAreGeneratedWherePlacementPutsThem() {
+        for (long seed : SEEDS) {
+            TestWorld world = new TestWorld(seed);
+            for (int regionX = -REGION_RADIUS; regionX <= REGION_RADIUS; regionX++) {
+                for (int regionZ = -REGION_RADIUS; regionZ <= REGION_RADIUS; regionZ++) {
+                    int[] candidate = WarpedRuinsPlacement.getCandidateChunk(seed, regionX, regionZ);
+                    boolean expected = WarpedRuinsPlacement.getRuinsChunk(seed, regionX, regionZ) != null;
+                    assertEquals(expected, hasRuins(world, candidate[0], candidate[1]),
+                        "Ruins in candidate chunk " + candidate[0] + ", " + candidate[1] + " for seed " + seed);
+
+                    // The chunk next to the candidate is never one
+                    assertFalse(hasRuins(world, candidate[0] + 1, candidate[1]),
+                        "Ruins next to candidate chunk " + candidate[0] + ", " + candidate[1] + " for seed " + seed);
+                }
+            }
+        }
+    }
+
+    @Test
+    void locateFindsTheClosestRuins() {
+        for (long seed : SEEDS) {
+            for (int blockX = -2000; blockX <= 2000; blockX += 500) {
+                for (int blockZ = -2000; blockZ <= 2000; blockZ += 500) {
+                    assertArrayEquals(bruteForceNearest(seed, blockX, blockZ, 8),
+                        WarpedRuinsPlacement.locateNearest(seed, blockX, blockZ, 8),
+                        "Nearest ruins to " + blockX + ", " + blockZ + " for seed " + seed);
+                }
+            }
+        }
+    }
+
+    private static boolean hasRuins(TestWorld world, int chunkX, int chunkZ) {
+        TestLimitedRegion region = world.populate(chunkX, chunkZ, List.of(new WarpedRuinsPopulator()));
+        return TestDigest.population(world, region) != new TestDigest().get();
+    }
+
+    /**
+     * Every region within the radius, closest ruins first found wins like locateNearest
+     */
+    private static int[] bruteForceNearest(long seed, int blockX, int blockZ, int regionRadius) {
+        int originRegionX = Math.floorDiv(blockX >> 4, WarpedRuinsPlacement.SPACING);
+        int originRegionZ = Math.floorDiv(blockZ >> 4, WarpedRuinsPlacement.SPACING);
+        int[] nearest = null;
+        long nearestDistance = Long.MAX_VALUE;
+        for (int regionX = originRegionX - regionRadius; regionX <= originRegionX + regionRadius; regionX++) {
+            for (int regionZ = originRegionZ - regionRadius; regionZ <= originRegionZ + regionRadius; regionZ++) {
+                int[] chunk = WarpedRuinsPlacement.getRuinsChunk(seed, regionX, regionZ);
+                if (chunk == null) {
+                    continue;
+                }
+                long distX = chunk[0] * 16 + 8 - blockX;
+                long distZ = chunk[1] * 16 + 8 - blockZ;
+                long distance = distX * distX + distZ * distZ;
+                if (distance < nearestDistance) {
+                    nearestDistance = distance;
+                    nearest = new int[] { chunk[0] * 16 + 8, chunk[1] * 16 + 8 };
+                }
+            }
+        }
+        return nearest;
+    }
+}
@@ -0,0 +1,62 @@
+package me.swissh.warped_dimension;
+
+import org.bukkit.Material;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The surface index must answer exactly like the top-down column scans the features used
+ * before, while features place and remove blocks
+ */
+class WarpedSurfaceIndexTest {
+
+    private static final Material[] PLACED = { Material.AIR, Material.AIR, Material.WARPED_STEM, Material.AMETHYST_BLOCK };
+
+    @Test
+    void matchesTopDownScanWhileBlocksArePlaced() {
+        TestWorld world = new TestWorld(42L);
+        for (int chunkX = -2; chunkX <= 2; chunkX++) {
+            TestLimitedRegion region = world.createRegion(chunkX, 3);
+            WarpedChunkContext context = new WarpedChunkContext(world.getWorldInfo(), chunkX, 3, region.asLimitedRegion());
+            Random random = new Random(chunkX);
+
+            for (int i = 0; i < 5000; i++) {
+                // Mostly inside the chunk, sometimes in the buffer around it
+                int x = chunkX * 16 - 8 + random.nextInt(32);
+                int z = 3 * 16 - 8 + random.nextInt(32);
+                if (random.nextInt(3) == 0) {
+                    assertEquals(scan(region, x, z), context.getSurfaceY(x, z), "Surface at " + x + ", " + z);
+                } else {
+                    int y = scan(region, x, z) - 3 + random.nextInt(8);
+                    if (region.isInRegion(x, y, z)) {
+                        context.setType(x, y, z, PLACED[random.nextInt(PLACED.length)]);
+                    }
+                }
+            }
+
+            for (int x = chunkX * 16; x < chunkX * 16 + 16; x++) {
+                for (int z = 48; z < 64; z++) {
+                    assertEquals(scan(region, x, z), context.getSurfaceY(x, z), "Surface at " + x + ", " + z);
+                }
+            }
+        }
+    }
+
+    /**
+     * The scan every feature ran before the surface index
+     */
+    private static int scan(TestLimitedRegion region, int x, int z) {
+        for (int y = TestWorldInfo.MAX_HEIGHT - 1; y > TestWorldInfo.MIN_HEIGHT; y--) {
+            if (region.isInRegion(x, y, z)) {
+                Material blockType = region.getType(x, y, z);
+                if (blockType != Material.AIR) {
+                    return y + 1;
+                }
+            }
+        }
+        return TestWorldInfo.MIN_HEIGHT;
+    }
+}
@@ -0,0 +1,168 @@
+package me.swissh.warped_dimension;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Determinism of the generator and populators. A fixed grid of chunks is generated and
+ * populated for fixed seeds and hashed; the hashes must match the golden file and must not
+ * depend on the order or thread chunks are generated on.
+ */
+class WarpedWorldgenTest {
+
+    private static final long[] SEEDS = { 1L, 42L, -8713456210937L };
+    private static final int GRID_RADIUS = 6; // 12x12 chunks per seed
+    private static final String GOLDEN_RESOURCE = "/golden/worldgen.txt";
+    private static final Path GOLDEN_SOURCE = Path.of("src/test/resources/golden/worldgen.txt");
+    private static final int THREADS = 8;
+
+    private static Map<String, String> sequential;
+
+    @Test
+    void matchesGoldenHashes() throws IOException {
+        Map<String, String> hashes = getSequential();
+        if (Boolean.getBoolean("warped.golden.update")) {
+            writeGolden(hashes);
+            return;
+        }
+
+        Map<String, String> golden = readGolden();
+        List<String> differences = new ArrayList<>();
+        for (Map.Entry<String, String> entry : golden.entrySet()) {
+            String actual = hashes.get(entry.getKey());
+            if (!entry.getValue().equals(actual)) {
+                differences.add(entry.getKey() + ": expected " + entry.getValue() + ", got " + actual);
+            }
+        }
+        for (String key : hashes.keySet()) {
+            if (!golden.containsKey(key)) {
+                differences.add(key + ": not in the golden file");
+            }
+        }
+        if (!differences.isEmpty()) {
+            fail(differences.size() + " chunks differ from " + GOLDEN_RESOURCE
+                + " (rewrite it with -Dwarped.golden.update=true if the change is intended):\n"
+                + String.join("\n", differences.subList(0, Math.min(20, differences.size()))));
+        }
+    }
+
+    @Test
+    void parallelGenerationMatchesSequential() throws Exception {
+        Map<String, String> parallel = new ConcurrentHashMap<>();
+        ForkJoinPool pool = new ForkJoinPool(THREADS);
+        try {
+            for (long seed : SEEDS) {
+                // A fresh world, walked backwards so threads hit the shared caches in another order
+                TestWorld world = new TestWorld(seed);
+                List<int[]> chunks = new ArrayList<>(getChunks(seed));
+                Collections.reverse(chunks);
+                pool.submit(() -> chunks.parallelStream().forEach(chunk ->
+                    parallel.put(key(seed, chunk), hash(world, chunk)))).get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(getSequential(), parallel);
+    }
+
+    @Test
+    void pipelineMatchesStandaloneFeatures() {
+        for (long seed : SEEDS) {
+            TestWorld world = new TestWorld(seed);
+            for (int[] chunk : getChunks(seed)) {
+                TestLimitedRegion pipeline = world.populate(chunk[0], chunk[1], List.of(world.createPipeline()));
+                TestLimitedRegion standalone = world.populate(chunk[0], chunk[1], WarpedWorldGenerator.createFeatures());
+                assertEquals(TestDigest.population(world, standalone), TestDigest.population(world, pipeline),
+                    "Populated blocks differ at " + key(seed, chunk));
+            }
+        }
+    }
+
+    private static synchronized Map<String, String> getSequential() {
+        if (sequential == null) {
+            Map<String, String> hashes = new LinkedHashMap<>();
+            for (long seed : SEEDS) {
+                TestWorld world = new TestWorld(seed);
+                for (int[] chunk : getChunks(seed)) {
+                    hashes.put(key(seed, chunk), hash(world, chunk));
+                }
+            }
+            sequential = hashes;
+        }
+        return sequential;
+    }
+
+    /**
+     * The grid around the origin, plus the nearest ruins so every feature is covered
+     */
+    private static List<int[]> getChunks(long seed) {
+        List<int[]> chunks = new ArrayList<>();
+        for (int chunkZ = -GRID_RADIUS; chunkZ < GRID_RADIUS; chunkZ++) {
+            for (int chunkX = -GRID_RADIUS; chunkX < GRID_RADIUS; chunkX++) {
+                chunks.add(new int[] {chunkX, chunkZ});
+            }
+        }
+
+        int[] ruins = WarpedRuinsPlacement.locateNearest(seed, 0, 0, 8);
+        assertNotNull(ruins, "No ruins near the origin for seed " + seed);
+        int ruinsChunkX = ruins[0] >> 4;
+        int ruinsChunkZ = ruins[1] >> 4;
+        if (Math.abs(ruinsChunkX + 0.5) > GRID_RADIUS || Math.abs(ruinsChunkZ + 0.5) > GRID_RADIUS) {
+            chunks.add(new int[] {ruinsChunkX, ruinsChunkZ});
+        }
+        return chunks;
+    }
+
+    private static String hash(TestWorld world, int[] chunk) {
+        long terrain = TestDigest.terrain(world, chunk[0], chunk[1]);
+        long population = TestDigest.population(world, world.populate(chunk[0], chunk[1], List.of(world.createPipeline())));
+        return Long.toHexString(terrain) + " " + Long.toHexString(population);
+    }
+
+    private static String key(long seed, int[] chunk) {
+        return seed + " " + chunk[0] + " " + chunk[1];
+    }
+
+    private static Map<String, String> readGolden() throws IOException {
+        Map<String, String> golden = new LinkedHashMap<>();
+        try (InputStream in = WarpedWorldgenTest.class.getResourceAsStream(GOLDEN_RESOURCE)) {
+            assertNotNull(in, GOLDEN_RESOURCE + " is missing, create it with -Dwarped.golden.update=true");
+            for (String line : new String(in.readAllBytes(), StandardCharsets.UTF_8).split("\n")) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                // seed chunkX chunkZ terrain population
+                String[] parts = line.trim().split(" ");
+                golden.put(parts[0] + " " + parts[1] + " " + parts[2], parts[3] + " " + parts[4]);
+            }
+        }
+        return golden;
+    }
+
+    private static void writeGolden(Map<String, String> hashes) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("# seed chunkX chunkZ terrain-hash population-hash");
+        lines.add("# FNV-1a hashes from WarpedWorldgenTest, rewrite with mvn test -Dwarped.golden.update=true");
+        for (Map.Entry<String, String> entry : hashes.entrySet()) {
+            lines.add(entry.getKey() + " " + entry.getValue());
+        }
+        Files.createDirectories(GOLDEN_SOURCE.getParent());
+        Files.write(GOLDEN_SOURCE, lines, StandardCharsets.UTF_8);
+    }
+}